@@ -0,0 +1,79 @@
+// k6 load test for comparing the default and virtual-threads modes.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 -e MODE=platform \
+//     --summary-export=loadtest/results/platform.json loadtest/history-and-login.js
+//
+// Run it once per mode against the same database, restarting the app in between.
+// Start the app with the loadtest profile as well: all logins come from this one
+// machine, and the default login throttling would answer most of them with 429.
+// Throttled logins are counted in login_throttled, and the run fails if there are any.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '400', 10);
+const DURATION = __ENV.DURATION || '60s';
+const USERS = parseInt(__ENV.USERS || '50', 10);
+const PASSWORD = __ENV.PASSWORD || 'LoadTest123!';
+
+const loginThrottled = new Counter('login_throttled');
+
+// Logins rotate over a pool of accounts so no single email takes all of them
+function email(i) {
+  return `loadtest${i}@example.com`;
+}
+
+export const options = {
+  scenarios: {
+    history: {
+      executor: 'constant-vus',
+      exec: 'history',
+      vus: VUS,
+      duration: DURATION,
+      tags: { mode: __ENV.MODE || 'unknown' },
+    },
+    login: {
+      executor: 'constant-vus',
+      exec: 'login',
+      vus: Math.max(1, Math.floor(VUS / 10)),
+      duration: DURATION,
+      tags: { mode: __ENV.MODE || 'unknown' },
+    },
+  },
+  thresholds: {
+    'http_req_failed{scenario:history}': ['rate<0.01'],
+    'http_req_duration{scenario:history}': ['p(95)<1000'],
+    login_throttled: ['count==0'],
+  },
+};
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export function setup() {
+  for (let i = 0; i < USERS; i++) {
+    const credentials = JSON.stringify({ name: `Load Test ${i}`, email: email(i), password: PASSWORD });
+    http.post(`${BASE_URL}/users/register`, credentials, JSON_HEADERS);
+  }
+  const res = http.post(`${BASE_URL}/users/login`,
+    JSON.stringify({ email: email(0), password: PASSWORD }), JSON_HEADERS);
+  check(res, { 'setup login ok': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export function history(data) {
+  const res = http.get(`${BASE_URL}/api/food-entries/history?range=all&limit=50`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+  });
+  check(res, { 'history 200': (r) => r.status === 200 });
+}
+
+export function login() {
+  const res = http.post(`${BASE_URL}/users/login`,
+    JSON.stringify({ email: email((__VU + __ITER) % USERS), password: PASSWORD }), JSON_HEADERS);
+  if (res.status === 429) {
+    loginThrottled.add(1);
+    return;
+  }
+  check(res, { 'login 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,80 @@
+package com.grupi2.calorie_tracker.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.entities.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization as the controllers emit it, using an ObjectMapper configured the
+ * way Spring Boot builds its default one. The FoodEntry entity carries the eagerly loaded
+ * user; listings (HistoryResponse) are made of FoodEntryDTO projections. Both include the
+ * formattedTime getter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private FoodEntry entry;
+    private HistoryResponse historyResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("Bench User");
+        user.setEmail("bench@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+
+        List<FoodEntryDTO> entries = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 5, 31, 20, 0);
+        for (int i = 0; i < pageSize; i++) {
+            FoodEntry foodEntry = new FoodEntry();
+            foodEntry.setId((long) i + 1);
+            foodEntry.setUser(user);
+            foodEntry.setFoodName("Chicken salad " + i);
+            foodEntry.setCalories(450 + i);
+            foodEntry.setPrice(new BigDecimal("8.90"));
+            foodEntry.setMealType(MealType.LUNCH);
+            foodEntry.setDescription("Grilled chicken, greens and vinaigrette");
+            foodEntry.setDateTime(time.minusHours(i * 5L));
+            foodEntry.setUpdatedAt(time.minusHours(i * 5L));
+            if (i == 0) {
+                entry = foodEntry;
+            }
+            entries.add(new FoodEntryDTO(foodEntry.getId(), user.getId(), foodEntry.getFoodName(),
+                    foodEntry.getCalories(), foodEntry.getPrice(), foodEntry.getMealType(),
+                    foodEntry.getDescription(), foodEntry.getDateTime(), foodEntry.getUpdatedAt()));
+        }
+        historyResponse = new HistoryResponse(entries, 125_000, "cursor");
+    }
+
+    @Benchmark
+    public byte[] foodEntry() throws Exception {
+        return objectMapper.writeValueAsBytes(entry);
+    }
+
+    @Benchmark
+    public byte[] historyResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(historyResponse);
+    }
+}
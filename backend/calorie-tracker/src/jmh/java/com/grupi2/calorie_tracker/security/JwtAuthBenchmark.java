@@ -0,0 +1,92 @@
+package com.grupi2.calorie_tracker.security;
+
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Token issue and verification cost in JwtUtils. Also compares per-request verification:
+ * the old filter path (two freshly built parsers, one for validateToken and one for
+ * getUserEmailFromToken) against a single parse with a shared parser and the cached
+ * JwtUtils path. The old path also ran a users query per request, which is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private Key key;
+    private String token;
+    private JwtParser sharedParser;
+    private JwtUtils jwtUtils;
+    private String cachedToken;
+
+    @Setup
+    public void setUp() {
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        token = Jwts.builder()
+                .setSubject(EMAIL)
+                .claim("role", "ROLE_USER")
+                .claim("userId", 1L)
+                .claim("ver", 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(key)
+                .compact();
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(user);
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "userRepository", userRepository);
+        cachedToken = jwtUtils.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims sharedParserSingleParse() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims cachedClaims() {
+        return jwtUtils.getClaimsFromToken(cachedToken);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(cachedToken);
+    }
+}
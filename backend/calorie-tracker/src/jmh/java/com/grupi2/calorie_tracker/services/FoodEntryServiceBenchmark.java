@@ -0,0 +1,92 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.DailyTotalDTO;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.HistoryResponse;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Service-side cost of the aggregation and history paths with the repositories stubbed,
+ * so the numbers track the work done in FoodEntryService and DailyTotalsService (plus a
+ * constant stub overhead) rather than database latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodEntryServiceBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    private FoodEntryService foodEntryService;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        List<FoodEntryDTO> page = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 5, 31, 20, 0);
+        for (int i = 0; i <= FoodEntryService.DEFAULT_PAGE_SIZE; i++) {
+            FoodEntryDTO entry = new FoodEntryDTO();
+            entry.setId((long) (1000 - i));
+            entry.setUserId(USER_ID);
+            entry.setFoodName("Meal " + i);
+            entry.setCalories(400 + i);
+            entry.setPrice(new BigDecimal("7.50"));
+            entry.setDateTime(time.minusHours(i * 5L));
+            page.add(entry);
+        }
+
+        List<DailyTotalDTO> monthTotals = new ArrayList<>();
+        for (int day = 1; day <= 31; day++) {
+            monthTotals.add(new DailyTotalDTO(LocalDate.of(2024, 5, day), 1500 + day * 40, new BigDecimal("26.20")));
+        }
+
+        FoodEntryRepository foodEntryRepository = mock(FoodEntryRepository.class);
+        when(foodEntryRepository.findHistoryPage(anyLong(), any(), any(), any())).thenReturn(page);
+        when(foodEntryRepository.findHistoryPageAfter(anyLong(), any(), any(), anyLong(), any())).thenReturn(page);
+
+        UserDailyTotalRepository userDailyTotalRepository = mock(UserDailyTotalRepository.class);
+        when(userDailyTotalRepository.sumCalories(anyLong(), any(), any())).thenReturn(125_000L);
+        when(userDailyTotalRepository.findDailyTotals(anyLong(), any(), any())).thenReturn(monthTotals);
+
+        DailyTotalsService dailyTotalsService = new DailyTotalsService(userDailyTotalRepository, foodEntryRepository, event -> { });
+        foodEntryService = new FoodEntryService(foodEntryRepository, mock(UserService.class), dailyTotalsService, event -> { });
+        cursor = foodEntryService.getHistoryPage(USER_ID, null, null, null, FoodEntryService.DEFAULT_PAGE_SIZE)
+                .getNextCursor();
+    }
+
+    @Benchmark
+    public HistoryResponse historyFirstPage() {
+        return foodEntryService.getHistoryPage(USER_ID, null, null, null, FoodEntryService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public HistoryResponse historyNextPage() {
+        return foodEntryService.getHistoryPage(USER_ID, null, null, cursor, FoodEntryService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> highCalorieDays() {
+        return foodEntryService.getHighCalorieDays(USER_ID, 2024, 5, 2000);
+    }
+
+    @Benchmark
+    public BigDecimal monthlySpending() {
+        return foodEntryService.getMonthlySpending(USER_ID, 2024, 5);
+    }
+}
@@ -0,0 +1,52 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of UserService.registerUser, which is dominated by the BCrypt hash. The work
+ * factor 10 is what SecurityConfig uses today; the higher values show the cost curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"10", "12"})
+    public int bcryptStrength;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenReturn(null);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "passwordEncoder", new BCryptPasswordEncoder(bcryptStrength));
+    }
+
+    @Benchmark
+    public User registerUser() {
+        User user = new User();
+        user.setName("Bench User");
+        user.setEmail("bench@example.com");
+        user.setPassword("Secret123!");
+        return userService.registerUser(user);
+    }
+}
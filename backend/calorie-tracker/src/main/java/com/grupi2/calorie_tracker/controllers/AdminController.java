@@ -4,13 +4,30 @@ import com.grupi2.calorie_tracker.dto.AdminStatsResponse;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
 import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.services.ActiveUserSketchService;
 import com.grupi2.calorie_tracker.services.AdminService;
+import com.grupi2.calorie_tracker.services.AdminStatsService;
+import com.grupi2.calorie_tracker.services.ExportFormat;
+import com.grupi2.calorie_tracker.services.FoodEntryExportService;
+import com.grupi2.calorie_tracker.services.FoodEntryService;
+import com.grupi2.calorie_tracker.services.FoodSearchService;
+import com.grupi2.calorie_tracker.services.TrendingFoodsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -18,16 +35,64 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AdminStatsService adminStatsService;
+    private final ActiveUserSketchService activeUserSketchService;
+    private final TrendingFoodsService trendingFoodsService;
+    private final FoodEntryExportService foodEntryExportService;
+    private final FoodSearchService foodSearchService;
 
     @Autowired
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, AdminStatsService adminStatsService,
+                           ActiveUserSketchService activeUserSketchService,
+                           TrendingFoodsService trendingFoodsService,
+                           FoodEntryExportService foodEntryExportService,
+                           FoodSearchService foodSearchService) {
         this.adminService = adminService;
+        this.adminStatsService = adminStatsService;
+        this.activeUserSketchService = activeUserSketchService;
+        this.trendingFoodsService = trendingFoodsService;
+        this.foodEntryExportService = foodEntryExportService;
+        this.foodSearchService = foodSearchService;
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<AdminStatsResponse> getAdminStats() {
+    public ResponseEntity<AdminStatsResponse> getAdminStats(
+            @RequestParam(defaultValue = "${admin.stats.budget-limit:1000}") BigDecimal budgetLimit,
+            @RequestParam(defaultValue = "false") boolean fresh) {
 
-        return ResponseEntity.ok(adminService.getAdminStats());
+        return ResponseEntity.ok(adminStatsService.getAdminStats(budgetLimit, fresh));
+    }
+
+    @GetMapping("/active-users")
+    public ResponseEntity<?> getActiveUsers(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "1") int window) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(from);
+            end = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date format. Please use 'YYYY-MM-DD'.");
+        }
+
+        try {
+            return ResponseEntity.ok(activeUserSketchService.getActiveUsers(start, end, window));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/trending-foods")
+    public ResponseEntity<?> getTrendingFoods(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(trendingFoodsService.getTrendingFoods(days, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/users")
@@ -36,8 +101,15 @@ public class AdminController {
     }
 
     @GetMapping("/users/{userId}/entries")
-    public ResponseEntity<List<FoodEntry>> getUserEntries(@PathVariable Long userId) {
-        return ResponseEntity.ok(adminService.getUserEntries(userId));
+    public ResponseEntity<?> getUserEntries(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FoodEntryService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(adminService.getUserEntries(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/users/{userId}")
@@ -66,5 +138,40 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/entries/export")
+    public ResponseEntity<StreamingResponseBody> exportAllEntries(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write("Invalid format. Use 'csv' or 'ndjson'.".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        StreamingResponseBody body = out -> foodEntryExportService.exportAllEntries(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"all-food-entries." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/daily-totals/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildDailyTotals() {
+        return ResponseEntity.ok(Map.of("rows", adminService.rebuildDailyTotals()));
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<String> reindexSearch() {
+        try {
+            if (!foodSearchService.reindex()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("A reindex is already queued.");
+            }
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("The search indexer is busy. Please try again later.");
+        }
+        return ResponseEntity.accepted().body("Reindex started.");
+    }
+
 
 }
\ No newline at end of file
@@ -1,23 +1,45 @@
 package com.grupi2.calorie_tracker.controllers;
 
+import com.grupi2.calorie_tracker.dto.FoodEntryBatchRequest;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
 import com.grupi2.calorie_tracker.dto.HistoryResponse;
+import com.grupi2.calorie_tracker.dto.ImportJobStatus;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.services.ExportFormat;
+import com.grupi2.calorie_tracker.services.FoodEntryExportService;
+import com.grupi2.calorie_tracker.services.FoodEntryImportService;
 import com.grupi2.calorie_tracker.services.FoodEntryService;
+import com.grupi2.calorie_tracker.services.FoodEntrySyncService;
+import com.grupi2.calorie_tracker.services.FoodSearchService;
+import com.grupi2.calorie_tracker.services.FoodSuggestionService;
+import com.grupi2.calorie_tracker.services.UserDataVersions;
 import com.grupi2.calorie_tracker.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/food-entries")
@@ -25,11 +47,32 @@ import java.util.List;
 
 public class FoodEntryController {
 
+    // Lets browsers keep these responses but revalidate every time, instead of the no-store
+    // default from Spring Security that would stop them from ever sending If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final FoodEntryService foodEntryService;
+    private final FoodEntryExportService foodEntryExportService;
+    private final FoodEntryImportService foodEntryImportService;
+    private final FoodSuggestionService foodSuggestionService;
+    private final FoodSearchService foodSearchService;
+    private final FoodEntrySyncService foodEntrySyncService;
+    private final UserDataVersions userDataVersions;
 
     @Autowired
-    public FoodEntryController(FoodEntryService foodEntryService) {
+    public FoodEntryController(FoodEntryService foodEntryService, FoodEntryExportService foodEntryExportService,
+                               FoodEntryImportService foodEntryImportService,
+                               FoodSuggestionService foodSuggestionService,
+                               FoodSearchService foodSearchService,
+                               FoodEntrySyncService foodEntrySyncService,
+                               UserDataVersions userDataVersions) {
         this.foodEntryService = foodEntryService;
+        this.foodEntryExportService = foodEntryExportService;
+        this.foodEntryImportService = foodEntryImportService;
+        this.foodSuggestionService = foodSuggestionService;
+        this.foodSearchService = foodSearchService;
+        this.foodEntrySyncService = foodEntrySyncService;
+        this.userDataVersions = userDataVersions;
     }
     @PostMapping
     public ResponseEntity<FoodEntry> createFoodEntry(
@@ -40,15 +83,82 @@ public class FoodEntryController {
         return ResponseEntity.ok(foodEntry);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<FoodEntryDTO>> createFoodEntries(
+            @Valid @RequestBody FoodEntryBatchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        List<FoodEntry> foodEntries = foodEntryService.createFoodEntries(request.getEntries(), userId);
+        return ResponseEntity.ok(foodEntries.stream().map(FoodEntryDTO::from).toList());
+    }
+
     @GetMapping("/daily")
-    public ResponseEntity<List<FoodEntry>> getDailyEntries(
+    public ResponseEntity<List<FoodEntryDTO>> getDailyEntries(
             @RequestParam LocalDateTime date,
             @AuthenticationPrincipal UserDetails userDetails) {
         Long userId = ((CustomUserDetails) userDetails).getId();
-        List<FoodEntry> entries = foodEntryService.getUserFoodEntriesForDay(userId, date);
+        List<FoodEntryDTO> entries = foodEntryService.getUserFoodEntriesForDay(userId, date);
         return ResponseEntity.ok(entries);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestFoods(
+            @RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        try {
+            return ResponseEntity.ok(foodSuggestionService.suggest(userId, prefix, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEntries(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String mealType,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = from != null ? LocalDate.parse(from) : null;
+            end = to != null ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date format. Please use 'YYYY-MM-DD'.");
+        }
+
+        MealType meal;
+        try {
+            meal = mealType != null ? MealType.valueOf(mealType.toUpperCase(Locale.ROOT)) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid meal type.");
+        }
+
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        try {
+            return ResponseEntity.ok(foodSearchService.search(userId, query, start, end, meal, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/changes-since")
+    public ResponseEntity<?> getChangesSince(
+            @RequestParam(required = false) String watermark,
+            @RequestParam(defaultValue = "" + FoodEntrySyncService.DEFAULT_LIMIT) int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        try {
+            return ResponseEntity.ok(foodEntrySyncService.getChangesSince(userId, watermark, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{foodEntryId}")
     public ResponseEntity<Void> deleteFoodEntry(
             @PathVariable Long foodEntryId,
@@ -65,13 +175,64 @@ public class FoodEntryController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEntries(
+            @RequestParam(defaultValue = "csv") String format,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write("Invalid format. Use 'csv' or 'ndjson'.".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        StreamingResponseBody body = out -> foodEntryExportService.exportUserEntries(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"food-entries." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importEntries(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("The file is empty.");
+        }
+
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        try {
+            return ResponseEntity.accepted().body(foodEntryImportService.startImport(userId, file));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many imports in progress. Please try again later.");
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = ((CustomUserDetails) userDetails).getId();
+        return foodEntryImportService.getStatus(userId, jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/calories/daily")
     public ResponseEntity<Integer> getDailyCalories(
             @RequestParam LocalDateTime date,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
         Long userId = ((CustomUserDetails) userDetails).getId();
+        if (isNotModified(webRequest, userId)) {
+            return null;
+        }
         Integer calories = foodEntryService.getDailyCalories(userId, date);
-        return ResponseEntity.ok(calories != null ? calories : 0);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(calories != null ? calories : 0);
     }
 
     @GetMapping("/calories/high-calorie-days")
@@ -88,10 +249,14 @@ public class FoodEntryController {
     public ResponseEntity<BigDecimal> getMonthlySpending(
             @RequestParam int year,
             @RequestParam int month,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
         Long userId = ((CustomUserDetails) userDetails).getId();
+        if (isNotModified(webRequest, userId)) {
+            return null;
+        }
         BigDecimal spending = foodEntryService.getMonthlySpending(userId, year, month);
-        return ResponseEntity.ok(spending);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(spending);
     }
 
     @GetMapping("/history")
@@ -104,13 +269,19 @@ public class FoodEntryController {
             @RequestParam(required = false) String startDate,  
 
             @RequestParam(required = false) String endDate,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FoodEntryService.DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
 
         Long userId = ((CustomUserDetails) userDetails).getId();
+        if (isNotModified(webRequest, userId)) {
+            return null;
+        }
 
         
 
-        List<FoodEntry> entries;
+        List<FoodEntryDTO> entries;
 
         
 
@@ -137,23 +308,23 @@ public class FoodEntryController {
             entries = foodEntryService.getUserFoodEntriesForMonth(userId, year, month);
 
         } else if (range.equals("all")) {
-            
+            LocalDate start = null;
+            LocalDate end = null;
 
             if (startDate != null && endDate != null) {
                 try {
-                    
-
-                    LocalDate start = LocalDate.parse(startDate);
-                    LocalDate end = LocalDate.parse(endDate);
-                    entries = foodEntryService.getUserFoodEntriesForAllTimeWithinRange(userId, start.atStartOfDay(), end.atTime(23, 59, 59));
-                    System.out.println("StartDate: " + startDate + ", EndDate: " + endDate);
+                    start = LocalDate.parse(startDate);
+                    end = LocalDate.parse(endDate);
                 } catch (DateTimeParseException e) {
                     return ResponseEntity.badRequest().body("Invalid date format. Please use 'YYYY-MM-DD'.");
                 }
-            } else {
-                
+            }
 
-                entries = foodEntryService.getUserFoodEntriesForAllTime(userId);
+            try {
+                return ResponseEntity.ok().cacheControl(REVALIDATE)
+                        .body(foodEntryService.getHistoryPage(userId, start, end, cursor, limit));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
             }
 
         } else {
@@ -162,11 +333,23 @@ public class FoodEntryController {
 
         
 
-        int totalCalories = entries.stream().mapToInt(FoodEntry::getCalories).sum();
+        int totalCalories = entries.stream().mapToInt(FoodEntryDTO::getCalories).sum();
 
         
 
-        return ResponseEntity.ok(new HistoryResponse(entries, totalCalories));
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(new HistoryResponse(entries, totalCalories));
+    }
+
+    /**
+     * Answers a conditional GET from the user's data version alone, a primary-key lookup
+     * made before any of the endpoint's own queries.
+     * Sets ETag and Last-Modified on the response; when true the status is already 304 and
+     * the handler should return null.
+     */
+    private boolean isNotModified(WebRequest webRequest, Long userId) {
+        long version = userDataVersions.currentVersion(userId);
+        // The user id keeps a version from one account from matching another on a shared device
+        return webRequest.checkNotModified("\"" + userId + "-" + version + "\"", UserDataVersions.lastModified(version));
     }
 
 }
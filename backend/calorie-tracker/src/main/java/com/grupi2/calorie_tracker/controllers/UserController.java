@@ -4,9 +4,14 @@ import com.grupi2.calorie_tracker.dto.EmailRequest;
 import com.grupi2.calorie_tracker.dto.PasswordResetRequest;
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.security.JwtUtils;
+import com.grupi2.calorie_tracker.security.LoginRateLimiter;
+import com.grupi2.calorie_tracker.security.PasswordHashingRejectedException;
+import com.grupi2.calorie_tracker.security.TokenVersionService;
 import com.grupi2.calorie_tracker.services.EmailService;
 import com.grupi2.calorie_tracker.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,6 +42,12 @@ public class UserController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
 
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
@@ -47,9 +58,6 @@ public class UserController {
             }
 
 
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
-
-
             User registeredUser = userService.registerUser(user);
 
 
@@ -61,6 +69,8 @@ public class UserController {
             response.put("token", jwt);
 
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(1, "Server is busy. Please try again shortly.");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -70,7 +80,13 @@ public class UserController {
 
 
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody User loginUser) {
+    public ResponseEntity<?> loginUser(@RequestBody User loginUser, HttpServletRequest request) {
+        // The client address; taken from X-Forwarded-For only behind a proxy listed in server.tomcat.remoteip.internal-proxies
+        long retryAfter = loginRateLimiter.tryAcquire(request.getRemoteAddr(), loginUser.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter, "Too many login attempts. Please try again later.");
+        }
+
         try {
 
             authenticationManager.authenticate(
@@ -86,6 +102,8 @@ public class UserController {
             response.put("token", jwt);
             response.put("user", user);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(1, "Server is busy. Please try again shortly.");
         } catch (Exception e) {
             System.out.println("Authentication failed for user: " + loginUser.getEmail());
             return ResponseEntity.status(401).body("Invalid credentials");
@@ -149,16 +167,26 @@ public class UserController {
 
             user.setName(updatedUser.getName());
 
-            if (!user.getEmail().equals(updatedUser.getEmail())) {
+            boolean emailChanged = !user.getEmail().equals(updatedUser.getEmail());
+            if (emailChanged) {
                 if (userService.findByEmail(updatedUser.getEmail()) != null) {
                     return ResponseEntity.badRequest()
                             .body(Map.of("message", "Email already in use"));
                 }
                 user.setEmail(updatedUser.getEmail());
+                tokenVersionService.revoke(user);
             }
 
             User savedUser = userService.updateUser(user);
-            return ResponseEntity.ok(savedUser);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("user", savedUser);
+            if (emailChanged) {
+                tokenVersionService.versionSaved(savedUser);
+                // The caller's own token was just revoked, so hand them a fresh one for the new email.
+                response.put("token", jwtUtils.generateToken(savedUser.getEmail()));
+            }
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Failed to update profile"));
@@ -189,9 +217,15 @@ public class UserController {
             }
 
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            tokenVersionService.revoke(user);
             userService.updateUser(user);
+            tokenVersionService.versionSaved(user);
 
-            return ResponseEntity.ok(Map.of("message", "Password updated successfully"));
+            // Tokens issued before the reset are now rejected, so hand the caller a fresh one.
+            String jwt = jwtUtils.generateToken(user.getEmail());
+            return ResponseEntity.ok(Map.of("message", "Password updated successfully", "token", jwt));
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(1, Map.of("message", "Server is busy. Please try again shortly."));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Failed to reset password"));
@@ -203,6 +237,12 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds, Object body) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(body);
+    }
+
 }
 
 
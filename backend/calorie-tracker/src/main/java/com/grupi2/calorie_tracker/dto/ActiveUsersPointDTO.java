@@ -0,0 +1,15 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class ActiveUsersPointDTO {
+    // Last day of the window
+    private LocalDate date;
+    // Estimated distinct users with at least one entry in the window
+    private long activeUsers;
+}
@@ -3,6 +3,7 @@ package com.grupi2.calorie_tracker.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -15,4 +16,6 @@ public class AdminStatsResponse {
     private int weekBeforeEntries;
     private double averageCaloriesAllUsers;
     private List<UserOverBudgetDTO> usersOverBudget;
+    // When these numbers were computed; served from a periodically refreshed snapshot
+    private LocalDateTime asOf;
 }
\ No newline at end of file
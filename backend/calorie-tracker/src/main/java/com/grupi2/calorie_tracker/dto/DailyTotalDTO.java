@@ -0,0 +1,15 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class DailyTotalDTO {
+    private LocalDate date;
+    private Integer totalCalories;
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,17 @@
+package com.grupi2.calorie_tracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class FoodEntryBatchRequest {
+    public static final int MAX_ENTRIES = 500;
+
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = MAX_ENTRIES, message = "At most " + MAX_ENTRIES + " entries can be sent at once")
+    private List<@Valid FoodEntryRequest> entries;
+}
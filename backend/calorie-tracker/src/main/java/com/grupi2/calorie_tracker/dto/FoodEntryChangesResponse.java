@@ -0,0 +1,21 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class FoodEntryChangesResponse {
+    // Entries created or edited since the watermark, oldest change first
+    private List<FoodEntryDTO> changed;
+    // Ids of entries deleted since the watermark
+    private List<Long> deleted;
+    // Pass back as ?watermark= on the next call
+    private String watermark;
+    // More changes are waiting; call again right away with the new watermark
+    private boolean hasMore;
+    // The watermark predates the kept tombstones: drop local entries and start over from this page
+    private boolean reset;
+}
@@ -0,0 +1,45 @@
+package com.grupi2.calorie_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Read-only view of a food entry for listings. Built directly by JPQL constructor
+ * expressions, so the owning user is never loaded; only its id is carried along.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodEntryDTO {
+    private static final DateTimeFormatter FORMATTED_TIME = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+
+    private Long id;
+    private Long userId;
+    private String foodName;
+    private Integer calories;
+    private BigDecimal price;
+    private MealType mealType;
+    private String description;
+    private LocalDateTime dateTime;
+    private LocalDateTime updatedAt;
+
+    public static FoodEntryDTO from(FoodEntry entry) {
+        return new FoodEntryDTO(entry.getId(), entry.getUser().getId(), entry.getFoodName(), entry.getCalories(),
+                entry.getPrice(), entry.getMealType(), entry.getDescription(), entry.getDateTime(), entry.getUpdatedAt());
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("formattedTime")
+    public String getFormattedTime() {
+        return dateTime != null ? dateTime.format(FORMATTED_TIME) : null;
+    }
+}
@@ -19,6 +19,7 @@ public class FoodEntryRequest {
 
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.00", message = "Price must be positive")
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 digits and 2 decimals")
     private BigDecimal price;
 
     @NotNull(message = "Date and time are required")
@@ -27,5 +28,6 @@ public class FoodEntryRequest {
     @NotNull(message = "Meal type is required")
     private MealType mealType;
 
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
     private String description;
 }
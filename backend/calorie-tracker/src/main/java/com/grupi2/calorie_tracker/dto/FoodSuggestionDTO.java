@@ -0,0 +1,21 @@
+package com.grupi2.calorie_tracker.dto;
+
+import com.grupi2.calorie_tracker.entities.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class FoodSuggestionDTO {
+    // Spelling from the most recent entry with this name
+    private String foodName;
+    private long timesLogged;
+    // Values from that most recent entry, to prefill the form; null on suggestions from other users
+    private Integer calories;
+    private BigDecimal price;
+    private MealType mealType;
+    // True when the suggestion comes from the user's own entries rather than everyone's
+    private boolean personal;
+}
@@ -0,0 +1,29 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in a history listing ordered by (dateTime DESC, id DESC).
+ * Clients only ever see the encoded form and pass it back unchanged.
+ */
+@Data
+@AllArgsConstructor
+public class HistoryCursor {
+    private LocalDateTime dateTime;
+    private Long id;
+
+    public static HistoryCursor of(FoodEntryDTO entry) {
+        return new HistoryCursor(entry.getDateTime(), entry.getId());
+    }
+
+    public String encode() {
+        return KeysetToken.encode(dateTime, id);
+    }
+
+    public static HistoryCursor decode(String token) {
+        return KeysetToken.decode(token, "Invalid cursor.", HistoryCursor::new);
+    }
+}
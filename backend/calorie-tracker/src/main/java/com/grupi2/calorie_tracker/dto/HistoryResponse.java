@@ -1,25 +1,30 @@
 package com.grupi2.calorie_tracker.dto;
 
-import com.grupi2.calorie_tracker.entities.FoodEntry;
-
 import java.util.List;
 
 public class HistoryResponse {
-    private List<FoodEntry> entries;
+    private List<FoodEntryDTO> entries;
     private int totalCalories;
+    private String nextCursor;
 
     
-    public HistoryResponse(List<FoodEntry> entries, int totalCalories) {
+    public HistoryResponse(List<FoodEntryDTO> entries, int totalCalories) {
+        this.entries = entries;
+        this.totalCalories = totalCalories;
+    }
+
+    public HistoryResponse(List<FoodEntryDTO> entries, int totalCalories, String nextCursor) {
         this.entries = entries;
         this.totalCalories = totalCalories;
+        this.nextCursor = nextCursor;
     }
 
     
-    public List<FoodEntry> getEntries() {
+    public List<FoodEntryDTO> getEntries() {
         return entries;
     }
 
-    public void setEntries(List<FoodEntry> entries) {
+    public void setEntries(List<FoodEntryDTO> entries) {
         this.entries = entries;
     }
 
@@ -30,4 +35,12 @@ public class HistoryResponse {
     public void setTotalCalories(int totalCalories) {
         this.totalCalories = totalCalories;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
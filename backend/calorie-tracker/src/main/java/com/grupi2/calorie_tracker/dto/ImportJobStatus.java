@@ -0,0 +1,24 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ImportJobStatus {
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private State state;
+    private int rowsProcessed;
+    private int imported;
+    private int failed;
+    // Only the first errors are kept; failed has the full count
+    private List<ImportRowError> errors;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,12 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportRowError {
+    // Line of the record in the file, counting the header as row 1
+    private int row;
+    private String message;
+}
@@ -0,0 +1,37 @@
+package com.grupi2.calorie_tracker.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.BiFunction;
+
+/**
+ * Opaque wire form of a (timestamp, id) keyset position, shared by HistoryCursor and
+ * SyncWatermark: "timestamp|id" in URL-safe Base64 without padding.
+ */
+final class KeysetToken {
+
+    private KeysetToken() {
+    }
+
+    static String encode(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static <T> T decode(String token, String invalidMessage, BiFunction<LocalDateTime, Long, T> factory) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException(invalidMessage);
+            }
+            return factory.apply(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException(invalidMessage, e);
+        }
+    }
+}
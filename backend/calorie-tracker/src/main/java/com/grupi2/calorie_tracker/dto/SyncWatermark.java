@@ -0,0 +1,25 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in a user's change feed ordered by (updatedAt, id): everything up to and
+ * including it has been delivered. Clients only ever see the encoded form.
+ */
+@Data
+@AllArgsConstructor
+public class SyncWatermark {
+    private LocalDateTime updatedAt;
+    private Long id;
+
+    public String encode() {
+        return KeysetToken.encode(updatedAt, id);
+    }
+
+    public static SyncWatermark decode(String token) {
+        return KeysetToken.decode(token, "Invalid watermark.", SyncWatermark::new);
+    }
+}
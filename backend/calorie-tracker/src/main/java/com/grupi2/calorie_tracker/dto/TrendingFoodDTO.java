@@ -0,0 +1,14 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TrendingFoodDTO {
+    // Normalized: trimmed, single-spaced and lower case
+    private String foodName;
+    private long count;
+    // The true count lies between count - maxError and count
+    private long maxError;
+}
@@ -0,0 +1,13 @@
+package com.grupi2.calorie_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class UserActiveDayDTO {
+    private LocalDate date;
+    private Long userId;
+}
@@ -0,0 +1,24 @@
+package com.grupi2.calorie_tracker.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_active_user_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyActiveUserSketch {
+
+    @Id
+    @Column(name = "entry_date", nullable = false)
+    private LocalDate date;
+
+    // Deflated HyperLogLog registers of the ids of users who logged an entry that day
+    @Column(name = "sketch", nullable = false, length = 8192)
+    private byte[] sketch;
+}
@@ -0,0 +1,24 @@
+package com.grupi2.calorie_tracker.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_trending_foods")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTrendingFoods {
+
+    @Id
+    @Column(name = "entry_date", nullable = false)
+    private LocalDate date;
+
+    // JSON snapshot of the day's Space-Saving counters: food name, count and error
+    @Column(name = "counters", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String counters;
+}
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,11 +13,17 @@ import java.time.temporal.WeekFields;
 import java.util.Locale;
 
 @Entity
-@Table(name = "foodentries")
+@Table(name = "foodentries", indexes = {
+        @Index(name = "idx_foodentries_user_date_time", columnList = "user_id, date_time, calories, price"),
+        @Index(name = "idx_foodentries_user_updated_at", columnList = "user_id, updated_at")
+})
 @Data
 public class FoodEntry {
+    // Pooled ids let Hibernate batch inserts; IDENTITY forces one round trip per row.
+    // On MySQL the sequence is emulated by the foodentries_seq table (see V5 migration).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "foodentries_seq")
+    @SequenceGenerator(name = "foodentries_seq", sequenceName = "foodentries_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -50,7 +55,6 @@ public class FoodEntry {
     @Column(length = 1000)
     private String description;
 
-    @CreationTimestamp
     @Column(name = "date_time", updatable = false)
     private LocalDateTime dateTime;
 
@@ -59,6 +63,15 @@ public class FoodEntry {
     private LocalDateTime updatedAt;
 
 
+    // Only fills in a missing time. @CreationTimestamp replaced the client's value at insert,
+    // which with batched inserts happens after the daily rollup has used the original one.
+    @PrePersist
+    void defaultDateTime() {
+        if (dateTime == null) {
+            dateTime = LocalDateTime.now();
+        }
+    }
+
     @Transient
     @JsonInclude(JsonInclude.Include.NON_NULL)  
     @JsonProperty("formattedTime")             
@@ -0,0 +1,39 @@
+package com.grupi2.calorie_tracker.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted food entry. Kept for a limited time so that clients syncing
+ * changes since a watermark can drop the entry locally.
+ */
+@Entity
+@Table(name = "food_entry_deletions", indexes = {
+        @Index(name = "idx_food_entry_deletions_user_deleted_at", columnList = "user_id, deleted_at")
+})
+@Data
+@NoArgsConstructor
+public class FoodEntryDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entry_id", nullable = false)
+    private Long entryId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public FoodEntryDeletion(Long entryId, Long userId, LocalDateTime deletedAt) {
+        this.entryId = entryId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+}
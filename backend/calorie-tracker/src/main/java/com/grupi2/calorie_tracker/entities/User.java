@@ -1,5 +1,6 @@
 package com.grupi2.calorie_tracker.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -35,6 +36,11 @@ public class User {
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
+    // Embedded in every JWT as the "ver" claim; bumping it invalidates all tokens issued before.
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
     public enum Role {
         ADMIN, USER
     }
@@ -87,4 +93,12 @@ public class User {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
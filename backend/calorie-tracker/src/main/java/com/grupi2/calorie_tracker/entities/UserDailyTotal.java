@@ -0,0 +1,44 @@
+package com.grupi2.calorie_tracker.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "user_daily_totals")
+@IdClass(UserDailyTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDailyTotal {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "entry_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "total_calories", nullable = false)
+    private Integer totalCalories;
+
+    @Column(name = "total_price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate date;
+    }
+}
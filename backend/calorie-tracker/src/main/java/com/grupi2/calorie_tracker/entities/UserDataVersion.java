@@ -0,0 +1,21 @@
+package com.grupi2.calorie_tracker.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "user_data_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDataVersion {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
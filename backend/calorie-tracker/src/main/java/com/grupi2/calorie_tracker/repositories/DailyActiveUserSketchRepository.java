@@ -0,0 +1,18 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import com.grupi2.calorie_tracker.entities.DailyActiveUserSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyActiveUserSketchRepository extends JpaRepository<DailyActiveUserSketch, LocalDate> {
+
+    List<DailyActiveUserSketch> findByDateBetween(LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_active_user_sketches", nativeQuery = true)
+    void deleteAllSketches();
+}
@@ -0,0 +1,19 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import com.grupi2.calorie_tracker.entities.DailyTrendingFoods;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyTrendingFoodsRepository extends JpaRepository<DailyTrendingFoods, LocalDate> {
+
+    List<DailyTrendingFoods> findByDateGreaterThanEqual(LocalDate start);
+
+    @Modifying
+    @Query("DELETE FROM DailyTrendingFoods t WHERE t.date < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
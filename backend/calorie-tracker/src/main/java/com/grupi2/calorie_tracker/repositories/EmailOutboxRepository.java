@@ -0,0 +1,23 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import com.grupi2.calorie_tracker.entities.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    List<EmailOutboxMessage> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            EmailOutboxMessage.Status status, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status IN :statuses AND m.createdAt < :cutoff")
+    int deleteByStatusCreatedBefore(@Param("statuses") Collection<EmailOutboxMessage.Status> statuses,
+                                    @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,25 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import com.grupi2.calorie_tracker.entities.FoodEntryDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FoodEntryDeletionRepository extends JpaRepository<FoodEntryDeletion, Long> {
+
+    @Query("SELECT d.entryId FROM FoodEntryDeletion d " +
+            "WHERE d.userId = :userId AND d.deletedAt > :after AND d.deletedAt <= :upTo " +
+            "ORDER BY d.deletedAt")
+    List<Long> findDeletedEntryIds(
+            @Param("userId") Long userId,
+            @Param("after") LocalDateTime after,
+            @Param("upTo") LocalDateTime upTo);
+
+    @Modifying
+    @Query("DELETE FROM FoodEntryDeletion d WHERE d.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
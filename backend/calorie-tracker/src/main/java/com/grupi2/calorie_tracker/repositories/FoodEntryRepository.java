@@ -1,78 +1,95 @@
 package com.grupi2.calorie_tracker.repositories;
 
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
-import com.grupi2.calorie_tracker.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-import java.util.Date;
+import java.util.stream.Stream;
 
 import java.util.Optional;
 
 public interface FoodEntryRepository extends JpaRepository<FoodEntry, Long> {
-    List<FoodEntry> findByUserIdOrderByDateTimeDesc(Long userId);
-    List<FoodEntry> findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
-            Long userId, LocalDateTime start, LocalDateTime end);
+    // Listing projection: entry columns plus the user_id foreign key, without joining users
+    String ENTRY_DTO = "new com.grupi2.calorie_tracker.dto.FoodEntryDTO(" +
+            "f.id, f.user.id, f.foodName, f.calories, f.price, f.mealType, f.description, f.dateTime, f.updatedAt)";
+    int EXPORT_FETCH_SIZE = 500;
+
     Optional<FoodEntry> findByIdAndUserId(Long foodEntryId, Long userId);
-    @Query("SELECT SUM(f.calories) FROM FoodEntry f WHERE f.user.id = ?1 AND f.dateTime BETWEEN ?2 AND ?3")
-    Integer getTotalCaloriesForUserBetweenDates(Long userId, LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT DISTINCT DATE(f.dateTime) " +
-            "FROM FoodEntry f " +
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f " +
             "WHERE f.user.id = :userId " +
-            "AND YEAR(f.dateTime) = :year " +
-            "AND MONTH(f.dateTime) = :month " +
-            "GROUP BY DATE(f.dateTime) " +
-            "HAVING SUM(f.calories) > :calorieThreshold")
-    List<Date> findHighCalorieDays(
+            "AND f.dateTime >= :start AND f.dateTime < :end " +
+            "ORDER BY f.dateTime DESC, f.id DESC")
+    List<FoodEntryDTO> findEntriesBetween(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month,
-            @Param("calorieThreshold") int calorieThreshold);
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
 
-    @Query("SELECT SUM(f.price) FROM FoodEntry f " +
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f " +
             "WHERE f.user.id = :userId " +
-            "AND YEAR(f.dateTime) = :year " +
-            "AND MONTH(f.dateTime) = :month")
-    BigDecimal calculateMonthlySpending(
+            "AND f.dateTime >= :start AND f.dateTime < :end " +
+            "ORDER BY f.dateTime DESC, f.id DESC")
+    List<FoodEntryDTO> findHistoryPage(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month);
-
-
-
-    @Query("SELECT COUNT(DISTINCT f.user) FROM FoodEntry f WHERE f.dateTime BETWEEN :start AND :end")
-    int countDistinctUsersByDateTimeBetween(
             @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end
-    );
+            @Param("end") LocalDateTime end,
+            Pageable pageable);
 
-    int countByDateTimeBetween(LocalDateTime start, LocalDateTime end);
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f " +
+            "WHERE f.user.id = :userId " +
+            "AND f.dateTime >= :start " +
+            "AND (f.dateTime < :cursorDateTime OR (f.dateTime = :cursorDateTime AND f.id < :cursorId)) " +
+            "ORDER BY f.dateTime DESC, f.id DESC")
+    List<FoodEntryDTO> findHistoryPageAfter(
+            @Param("userId") Long userId,
+            @Param("start") LocalDateTime start,
+            @Param("cursorDateTime") LocalDateTime cursorDateTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 
+    // Export streams read rows as they are consumed. The projection keeps them out of the
+    // persistence context, and the fetch size makes the driver use a server-side cursor.
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f " +
+            "WHERE f.user.id = :userId " +
+            "ORDER BY f.dateTime, f.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    Stream<FoodEntryDTO> streamByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT AVG(f.calories) FROM FoodEntry f WHERE f.dateTime >= :startDate")
-    Double getAverageCaloriesLastWeek(@Param("startDate") LocalDateTime startDate);
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f ORDER BY f.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    Stream<FoodEntryDTO> streamAll();
 
-    @Query("SELECT DISTINCT f.user FROM FoodEntry f " +
-            "WHERE f.dateTime BETWEEN :start AND :end " +
-            "GROUP BY f.user " +
-            "HAVING SUM(f.price) > :limit")
-    List<User> findUsersOverBudget(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("limit") BigDecimal limit
-    );
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f " +
+            "WHERE f.user.id = :userId " +
+            "ORDER BY f.dateTime DESC, f.id DESC")
+    List<FoodEntryDTO> findRecentEntries(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT SUM(f.price) FROM FoodEntry f " +
-            "WHERE f.user.id = :userId AND f.dateTime BETWEEN :start AND :end")
-    BigDecimal getTotalSpendingForUserInPeriod(
+    // Keyset scan over idx_foodentries_user_updated_at, oldest change first
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f " +
+            "WHERE f.user.id = :userId " +
+            "AND (f.updatedAt > :afterUpdatedAt OR (f.updatedAt = :afterUpdatedAt AND f.id > :afterId)) " +
+            "AND f.updatedAt <= :upTo " +
+            "ORDER BY f.updatedAt, f.id")
+    List<FoodEntryDTO> findChangesAfter(
             @Param("userId") Long userId,
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end
-    );
-}
\ No newline at end of file
+            @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+            @Param("afterId") Long afterId,
+            @Param("upTo") LocalDateTime upTo,
+            Pageable pageable);
+
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f WHERE f.user.id = :userId AND f.id IN :ids")
+    List<FoodEntryDTO> findByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT " + ENTRY_DTO + " FROM FoodEntry f WHERE f.dateTime >= :start")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    Stream<FoodEntryDTO> streamSince(@Param("start") LocalDateTime start);
+}
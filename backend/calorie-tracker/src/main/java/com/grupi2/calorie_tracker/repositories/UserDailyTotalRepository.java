@@ -0,0 +1,87 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import com.grupi2.calorie_tracker.dto.DailyTotalDTO;
+import com.grupi2.calorie_tracker.dto.UserActiveDayDTO;
+import com.grupi2.calorie_tracker.dto.UserOverBudgetDTO;
+import com.grupi2.calorie_tracker.entities.UserDailyTotal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface UserDailyTotalRepository extends JpaRepository<UserDailyTotal, UserDailyTotal.Key> {
+
+    Optional<UserDailyTotal> findByUserIdAndDate(Long userId, LocalDate date);
+
+    List<UserDailyTotal> findByDateGreaterThanEqual(LocalDate start);
+
+    @Query("SELECT COALESCE(SUM(t.entryCount), 0) FROM UserDailyTotal t")
+    long sumEntryCount();
+
+    @Query("SELECT new com.grupi2.calorie_tracker.dto.UserActiveDayDTO(t.date, t.userId) " +
+            "FROM UserDailyTotal t WHERE t.entryCount > 0 ORDER BY t.date")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FoodEntryRepository.EXPORT_FETCH_SIZE))
+    Stream<UserActiveDayDTO> streamActiveDays();
+
+    @Query("SELECT SUM(t.totalCalories) FROM UserDailyTotal t " +
+            "WHERE t.userId = :userId AND t.date >= :start AND t.date < :end")
+    Long sumCalories(
+            @Param("userId") Long userId,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
+    @Query("SELECT new com.grupi2.calorie_tracker.dto.DailyTotalDTO(t.date, t.totalCalories, t.totalPrice) " +
+            "FROM UserDailyTotal t " +
+            "WHERE t.userId = :userId AND t.date >= :start AND t.date < :end " +
+            "ORDER BY t.date")
+    List<DailyTotalDTO> findDailyTotals(
+            @Param("userId") Long userId,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
+    @Query("SELECT new com.grupi2.calorie_tracker.dto.UserOverBudgetDTO(u.id, u.name, SUM(t.totalPrice)) " +
+            "FROM UserDailyTotal t JOIN User u ON u.id = t.userId " +
+            "WHERE t.date >= :start AND t.date < :end " +
+            "GROUP BY u.id, u.name " +
+            "HAVING SUM(t.totalPrice) > :limit")
+    List<UserOverBudgetDTO> findUsersOverBudget(
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end,
+            @Param("limit") BigDecimal limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_totals (user_id, entry_date, total_calories, total_price, entry_count) " +
+            "VALUES (:userId, :date, :calories, :price, :entries) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_calories = total_calories + VALUES(total_calories), " +
+            "total_price = total_price + VALUES(total_price), " +
+            "entry_count = entry_count + VALUES(entry_count)",
+            nativeQuery = true)
+    void addToDailyTotal(
+            @Param("userId") Long userId,
+            @Param("date") LocalDate date,
+            @Param("calories") int calories,
+            @Param("price") BigDecimal price,
+            @Param("entries") int entries);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_daily_totals", nativeQuery = true)
+    void deleteAllTotals();
+
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_totals (user_id, entry_date, total_calories, total_price, entry_count) " +
+            "SELECT f.user_id, DATE(f.date_time), SUM(f.calories), SUM(f.price), COUNT(*) " +
+            "FROM foodentries f " +
+            "GROUP BY f.user_id, DATE(f.date_time)",
+            nativeQuery = true)
+    int insertTotalsFromEntries();
+}
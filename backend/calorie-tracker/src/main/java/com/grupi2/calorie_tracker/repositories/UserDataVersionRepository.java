@@ -0,0 +1,28 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import com.grupi2.calorie_tracker.entities.UserDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, Long> {
+
+    @Query("SELECT v.version FROM UserDataVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+
+    // The new version is now, or one past the old one if that is not earlier (clock skew between instances)
+    @Modifying
+    @Query(value = "INSERT INTO user_data_versions (user_id, version) VALUES (:userId, :now) " +
+            "ON DUPLICATE KEY UPDATE version = GREATEST(version + 1, VALUES(version))",
+            nativeQuery = true)
+    void bump(@Param("userId") Long userId, @Param("now") long now);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_data_versions (user_id, version) SELECT u.id, :now FROM users u " +
+            "ON DUPLICATE KEY UPDATE version = GREATEST(version + 1, VALUES(version))",
+            nativeQuery = true)
+    int bumpAll(@Param("now") long now);
+}
@@ -2,10 +2,17 @@ package com.grupi2.calorie_tracker.repositories;
 
 import com.grupi2.calorie_tracker.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenVersionById(@Param("userId") Long userId);
 }
 
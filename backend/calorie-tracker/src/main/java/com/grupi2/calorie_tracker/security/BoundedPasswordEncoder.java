@@ -0,0 +1,99 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Runs password hashing on a fixed-size pool with a bounded queue, so a burst of logins or
+ * registrations cannot take every request thread's CPU. When the queue is full, or a hash
+ * does not finish within maxWait, the call fails fast with PasswordHashingRejectedException.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.hash.wait")
+                .description("Time a password hashing task waits in the queue before it starts")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full", e);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
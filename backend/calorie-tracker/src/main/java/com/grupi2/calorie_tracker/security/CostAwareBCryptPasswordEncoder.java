@@ -0,0 +1,32 @@
+package com.grupi2.calorie_tracker.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that asks for a rehash whenever the stored cost differs from the
+ * configured one, in either direction. The stock encoder only upgrades weaker hashes,
+ * which makes it impossible to lower the cost again without forcing password resets.
+ */
+public class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public CostAwareBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -4,6 +4,7 @@ import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.repositories.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,7 +13,7 @@ import java.util.Collections;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -23,6 +24,26 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
 
+        return toUserDetails(user);
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored hash no
+     * longer matches the configured encoder or cost. The token version is left alone: the
+     * password itself has not changed.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername());
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + userDetails.getUsername());
+        }
+
+        user.setPassword(newPassword);
+        return toUserDetails(userRepository.save(user));
+    }
+
+    private CustomUserDetails toUserDetails(User user) {
         return new CustomUserDetails(
                 user.getId(),
                 user.getEmail(),
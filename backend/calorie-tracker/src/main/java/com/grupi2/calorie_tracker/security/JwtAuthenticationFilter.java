@@ -1,19 +1,23 @@
 package com.grupi2.calorie_tracker.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -22,22 +26,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;  
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                String userEmail = jwtUtils.getUserEmailFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (jwt != null) {
+                CustomUserDetails userDetails = authenticate(jwt);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -46,6 +53,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private CustomUserDetails authenticate(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "invalid";
+        try {
+            CustomUserDetails userDetails = buildUserDetails(jwtUtils.getClaimsFromToken(jwt));
+            result = userDetails != null ? "valid" : "rejected";
+            return userDetails;
+        } finally {
+            sample.stop(Timer.builder("auth.jwt.verification")
+                    .description("Time spent verifying the bearer token of a request")
+                    .tag("result", result)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // The principal is built from the signed claims; only the token version is checked against the (cached) user row.
+    private CustomUserDetails buildUserDetails(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        String role = claims.get("role", String.class);
+        Integer version = claims.get("ver", Integer.class);
+
+        if (userId == null || role == null || version == null
+                || !tokenVersionService.isCurrent(userId, version)) {
+            return null;
+        }
+
+        return new CustomUserDetails(userId, claims.getSubject(), null,
+                List.of(new SimpleGrantedAuthority(role)));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -55,4 +93,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         return null;
     }
-}
\ No newline at end of file
+}
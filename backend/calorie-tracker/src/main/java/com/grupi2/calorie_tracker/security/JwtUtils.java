@@ -3,6 +3,7 @@ package com.grupi2.calorie_tracker.security;
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.repositories.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,6 +18,10 @@ public class JwtUtils {
 
     private static final long JWT_EXPIRATION = 86400000; 
     private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private static final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
+    private final VerifiedTokenCache verifiedTokens = new VerifiedTokenCache(VERIFIED_TOKEN_CACHE_SIZE);
 
     @Autowired
     private UserRepository userRepository;
@@ -28,6 +33,7 @@ public class JwtUtils {
                 .setSubject(email)
                 .claim("role", "ROLE_" + user.getRole().name())
                 .claim("userId", user.getId())
+                .claim("ver", user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + JWT_EXPIRATION))
                 .signWith(key)
@@ -38,19 +44,26 @@ public class JwtUtils {
         return generateToken(authentication.getName());
     }
 
-    public String getUserEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token and returns its claims. Recently verified tokens are served from
+     * a bounded cache until they expire, so repeated requests skip the signature check.
+     */
+    public Claims getClaimsFromToken(String token) {
+        Claims claims = verifiedTokens.get(token);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
 
-        return claims.getSubject();
+    public String getUserEmailFromToken(String token) {
+        return getClaimsFromToken(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            getClaimsFromToken(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -0,0 +1,122 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket throttling for login attempts, keyed by client IP and by email, so neither
+ * one address nor one targeted account can drive unlimited BCrypt work.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final BucketSpec ipSpec;
+    private final BucketSpec emailSpec;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public LoginRateLimiter(@Value("${security.login.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${security.login.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                            @Value("${security.login.rate-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${security.login.rate-limit.email.refill-per-minute:5}") int emailRefillPerMinute,
+                            MeterRegistry meterRegistry) {
+        this.ipSpec = new BucketSpec(ipCapacity, ipRefillPerMinute);
+        this.emailSpec = new BucketSpec(emailCapacity, emailRefillPerMinute);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Takes one token from the IP bucket and one from the email bucket.
+     *
+     * @return 0 if the attempt may proceed, otherwise the number of seconds to wait
+     */
+    public long tryAcquire(String clientIp, String email) {
+        long now = System.nanoTime();
+        long retryAfter = bucket("ip:" + clientIp, ipSpec).tryConsume(now);
+        if (retryAfter > 0) {
+            meterRegistry.counter("auth.login.throttled", "key", "ip").increment();
+            return retryAfter;
+        }
+        if (email != null) {
+            retryAfter = bucket("email:" + email.trim().toLowerCase(Locale.ROOT), emailSpec).tryConsume(now);
+            if (retryAfter > 0) {
+                meterRegistry.counter("auth.login.throttled", "key", "email").increment();
+                return retryAfter;
+            }
+        }
+        return 0;
+    }
+
+    // Buckets that have refilled completely carry no state worth keeping.
+    @Scheduled(fixedDelayString = "${security.login.rate-limit.cleanup-interval:PT5M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(String key, BucketSpec spec) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(spec));
+    }
+
+    private record BucketSpec(int capacity, int refillPerMinute) {
+    }
+
+    private static class TokenBucket {
+        private final BucketSpec spec;
+        private final ReentrantLock lock = new ReentrantLock();
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(BucketSpec spec) {
+            this.spec = spec;
+            this.tokens = spec.capacity();
+            this.refilledAt = System.nanoTime();
+        }
+
+        long tryConsume(long now) {
+            lock.lock();
+            try {
+                refill(now);
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return 0;
+                }
+                double nanosPerToken = (double) NANOS_PER_MINUTE / spec.refillPerMinute();
+                long waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken);
+                return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isFull(long now) {
+            lock.lock();
+            try {
+                refill(now);
+                return tokens >= spec.capacity();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill(long now) {
+            double added = (now - refilledAt) * (double) spec.refillPerMinute() / NANOS_PER_MINUTE;
+            tokens = Math.min(spec.capacity(), tokens + added);
+            refilledAt = now;
+        }
+    }
+}
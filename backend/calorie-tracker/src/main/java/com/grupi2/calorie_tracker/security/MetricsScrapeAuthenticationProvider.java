@@ -0,0 +1,48 @@
+package com.grupi2.calorie_tracker.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Checks the basic-auth credentials of the Prometheus scrape job against the configured
+ * metrics.scrape.username and metrics.scrape.password. User JWTs expire and are signed
+ * with a key that changes on restart, so the scraper gets a static credential of its own
+ * that only opens the actuator endpoints. With no password configured nobody can scrape.
+ */
+public class MetricsScrapeAuthenticationProvider implements AuthenticationProvider {
+
+    static final String ROLE = "ROLE_METRICS";
+
+    private final String username;
+    private final String password;
+
+    public MetricsScrapeAuthenticationProvider(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        String presentedPassword = authentication.getCredentials() == null ? "" : authentication.getCredentials().toString();
+        if (!StringUtils.hasText(password)
+                || !username.equals(authentication.getName())
+                || !MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                        presentedPassword.getBytes(StandardCharsets.UTF_8))) {
+            throw new BadCredentialsException("Invalid scrape credentials");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(username, null, List.of(new SimpleGrantedAuthority(ROLE)));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
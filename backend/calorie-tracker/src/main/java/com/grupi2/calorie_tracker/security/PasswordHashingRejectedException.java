@@ -0,0 +1,16 @@
+package com.grupi2.calorie_tracker.security;
+
+/**
+ * Thrown when the password hashing pool is saturated and a hash cannot be started
+ * (or finished) in time. Callers should answer 429 rather than retrying in place.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,14 +1,21 @@
 package com.grupi2.calorie_tracker.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -16,6 +23,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -23,6 +33,30 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
 
+    // Actuator endpoints are for infrastructure, not users: the Prometheus scrape job signs
+    // in with its own basic-auth credential and user JWTs are not accepted here.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(
+            HttpSecurity http,
+            @Value("${metrics.scrape.username:prometheus}") String scrapeUsername,
+            @Value("${metrics.scrape.password:}") String scrapePassword) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(
+                        new MetricsScrapeAuthenticationProvider(scrapeUsername, scrapePassword)))
+                .httpBasic(Customizer.withDefaults())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasAuthority(MetricsScrapeAuthenticationProvider.ROLE)
+                        .anyRequest().denyAll()
+                );
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -30,6 +64,9 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses finish on an async dispatch that carries no JWT;
+                        // the request that started them has already been authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/users/register", "/users/login", "/users/send-confirmation", "/users/update-password", "/users/health").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
@@ -58,7 +95,23 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.encoder:bcrypt}") String encoderId,
+            @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${security.password.hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${security.password.hashing.queue-capacity:50}") int queueCapacity,
+            @Value("${security.password.hashing.max-wait:PT5S}") Duration maxWait) {
+        // New hashes use the configured algorithm and are stored with an {id} prefix. Hashes from
+        // before the prefix existed are plain BCrypt. Any hash that does not match the current
+        // settings is upgraded on the next successful login (see CustomUserDetailsService).
+        PasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        PasswordEncoder timed = new TimedPasswordEncoder(delegating, meterRegistry);
+        return new BoundedPasswordEncoder(timed, threads, queueCapacity, maxWait, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records how long password hashing and verification take, so hashing cost shows up
+ * next to request latency in the metrics.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    static final String METRIC_NAME = "auth.password.hash";
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
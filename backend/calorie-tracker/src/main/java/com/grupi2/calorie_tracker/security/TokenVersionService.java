@@ -0,0 +1,79 @@
+package com.grupi2.calorie_tracker.security;
+
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the current token version of each user in memory so the JWT filter can
+ * reject revoked tokens without loading the user row on every request.
+ * Entries expire after a short TTL, so versions bumped directly in the database
+ * are picked up without a restart.
+ */
+@Component
+public class TokenVersionService {
+
+    static final int UNKNOWN_USER = -1;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final ConcurrentMap<Long, CachedVersion> cache = new ConcurrentHashMap<>();
+
+    public TokenVersionService(UserRepository userRepository,
+                               @Value("${jwt.token-version.cache-ttl:PT1M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return getCurrentVersion(userId) == tokenVersion;
+    }
+
+    public int getCurrentVersion(Long userId) {
+        long now = System.nanoTime();
+        CachedVersion cached = cache.get(userId);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.version();
+        }
+
+        int version = userRepository.findTokenVersionById(userId).orElse(UNKNOWN_USER);
+        return store(userId, new CachedVersion(version, now)).version();
+    }
+
+    /**
+     * Bumps the user's token version so every token issued so far is rejected once the
+     * user is saved. The caller saves the user and then calls {@link #versionSaved}; the
+     * cache is left alone until then, so a failed save cannot reject tokens that the
+     * database still considers current.
+     */
+    public void revoke(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    /**
+     * Makes the saved token version of a revoked user take effect right away instead of
+     * after the cache TTL.
+     */
+    public void versionSaved(User user) {
+        store(user.getId(), new CachedVersion(user.getTokenVersion(), System.nanoTime()));
+    }
+
+    // Versions only go up, so a load that read the row before a revocation was saved
+    // must not replace the newer version that versionSaved cached.
+    private CachedVersion store(Long userId, CachedVersion loaded) {
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        return cache.merge(userId, loaded,
+                (cached, fresh) -> cached.version() > fresh.version() ? cached : fresh);
+    }
+
+    private record CachedVersion(int version, long loadedAt) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded map of recently verified tokens to their claims, keyed by the token's SHA-256 hash
+ * so raw tokens are never held in memory. Entries are dropped once the token expires.
+ */
+class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    Claims get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(hash(token), new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,206 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.ActiveUsersPointDTO;
+import com.grupi2.calorie_tracker.dto.UserActiveDayDTO;
+import com.grupi2.calorie_tracker.entities.DailyActiveUserSketch;
+import com.grupi2.calorie_tracker.repositories.DailyActiveUserSketchRepository;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Distinct active users per day as HyperLogLog sketches in daily_active_user_sketches, so
+ * DAU/WAU/MAU over any range is a merge of stored sketches instead of a COUNT(DISTINCT)
+ * over foodentries. New entries add their user to an in-memory sketch for that day, and a
+ * scheduled flush merges those into the table. Deletes are not subtracted: a user who
+ * logged something that day stays counted until the next rebuild from the rollup.
+ * Flushes and rebuilds hold one lock, a rebuild until it commits, so a flush can never
+ * write back a sketch it read before the rebuild replaced the table.
+ */
+@Service
+public class ActiveUserSketchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveUserSketchService.class);
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int MAX_WINDOW_DAYS = 90;
+
+    private final DailyActiveUserSketchRepository sketchRepository;
+    private final UserDailyTotalRepository userDailyTotalRepository;
+    private final TransactionTemplate rebuildTransaction;
+    private final ReentrantLock tableLock = new ReentrantLock();
+    // Adds not yet merged into the table; only touched inside compute so a flush never loses one
+    private final ConcurrentMap<LocalDate, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public ActiveUserSketchService(DailyActiveUserSketchRepository sketchRepository,
+                                   UserDailyTotalRepository userDailyTotalRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.userDailyTotalRepository = userDailyTotalRepository;
+        // Started from an after-commit listener, where the finished transaction is still bound
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalChanged(DailyTotalChangedEvent event) {
+        if (event.entries() > 0) {
+            pending.compute(event.date(), (date, sketch) -> {
+                HyperLogLog updated = sketch != null ? sketch : new HyperLogLog();
+                updated.add(event.userId());
+                return updated;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${admin.active-users.flush-interval:PT30S}")
+    public void flush() {
+        tableLock.lock();
+        try {
+            flushPending();
+        } finally {
+            tableLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        for (LocalDate date : List.copyOf(pending.keySet())) {
+            HyperLogLog sketch = pending.remove(date);
+            if (sketch == null) {
+                continue;
+            }
+            try {
+                HyperLogLog merged = sketchRepository.findById(date)
+                        .map(stored -> HyperLogLog.fromBytes(stored.getSketch()))
+                        .orElseGet(HyperLogLog::new);
+                merged.merge(sketch);
+                sketchRepository.save(new DailyActiveUserSketch(date, merged.toBytes()));
+            } catch (RuntimeException e) {
+                // Merging is idempotent, so putting the sketch back and retrying later is safe
+                pending.compute(date, (d, newer) -> {
+                    if (newer != null) {
+                        sketch.merge(newer);
+                    }
+                    return sketch;
+                });
+                logger.error("Flushing the active user sketch for {} failed", date, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * Estimated distinct active users for each day from {@code from} to {@code to}, each over
+     * the {@code windowDays} days ending on that day: 1 for DAU, 7 for WAU, 30 for MAU.
+     */
+    @Transactional(readOnly = true)
+    public List<ActiveUsersPointDTO> getActiveUsers(LocalDate from, LocalDate to, int windowDays) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_RANGE_DAYS + " days.");
+        }
+        if (windowDays < 1 || windowDays > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_DAYS + " days.");
+        }
+
+        LocalDate loadFrom = from.minusDays(windowDays - 1);
+        Map<LocalDate, HyperLogLog> days = new HashMap<>();
+        for (DailyActiveUserSketch stored : sketchRepository.findByDateBetween(loadFrom, to)) {
+            days.put(stored.getDate(), HyperLogLog.fromBytes(stored.getSketch()));
+        }
+        for (LocalDate date = loadFrom; !date.isAfter(to); date = date.plusDays(1)) {
+            pending.computeIfPresent(date, (d, sketch) -> {
+                days.computeIfAbsent(d, key -> new HyperLogLog()).merge(sketch);
+                return sketch;
+            });
+        }
+
+        List<ActiveUsersPointDTO> points = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            HyperLogLog window = new HyperLogLog();
+            for (int i = 0; i < windowDays; i++) {
+                HyperLogLog day = days.get(date.minusDays(i));
+                if (day != null) {
+                    window.merge(day);
+                }
+            }
+            points.add(new ActiveUsersPointDTO(date, window.estimate()));
+        }
+        return points;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (sketchRepository.count() == 0 && userDailyTotalRepository.count() > 0) {
+            rebuildFromRollup();
+        }
+    }
+
+    // The rollup has exactly one row per user and day, so this also drops users whose entries were deleted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        rebuildFromRollup();
+    }
+
+    private void rebuildFromRollup() {
+        tableLock.lock();
+        try {
+            rebuildTransaction.executeWithoutResult(status -> replaceSketches());
+        } finally {
+            tableLock.unlock();
+        }
+    }
+
+    private void replaceSketches() {
+        pending.clear();
+        sketchRepository.deleteAllSketches();
+
+        int days = 0;
+        LocalDate currentDate = null;
+        HyperLogLog current = null;
+        try (Stream<UserActiveDayDTO> activeDays = userDailyTotalRepository.streamActiveDays()) {
+            for (UserActiveDayDTO activeDay : (Iterable<UserActiveDayDTO>) activeDays::iterator) {
+                if (!activeDay.getDate().equals(currentDate)) {
+                    if (current != null) {
+                        sketchRepository.save(new DailyActiveUserSketch(currentDate, current.toBytes()));
+                        days++;
+                    }
+                    currentDate = activeDay.getDate();
+                    current = new HyperLogLog();
+                }
+                current.add(activeDay.getUserId());
+            }
+        }
+        if (current != null) {
+            sketchRepository.save(new DailyActiveUserSketch(currentDate, current.toBytes()));
+            days++;
+        }
+        logger.info("Rebuilt active user sketches for {} days", days);
+    }
+}
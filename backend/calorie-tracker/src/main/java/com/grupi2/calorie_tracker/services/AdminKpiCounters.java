@@ -0,0 +1,145 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.UserDailyTotal;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters behind the admin KPIs, so the dashboard does not scan foodentries.
+ * Keeps one bucket per day (entries, calorie sum, active users) for the last two weeks,
+ * plus the overall entry count. Buckets are loaded from user_daily_totals on startup and
+ * after a rebuild, and follow every committed rollup delta after that.
+ * <p>
+ * A delta that commits while a reload is reading the rollup can be missed; the periodic
+ * reconcile reloads from the rollup and corrects that.
+ */
+@Component
+public class AdminKpiCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminKpiCounters.class);
+    static final int WINDOW_DAYS = 14;
+
+    private final UserDailyTotalRepository userDailyTotalRepository;
+    private volatile Counters counters = new Counters();
+
+    public AdminKpiCounters(UserDailyTotalRepository userDailyTotalRepository) {
+        this.userDailyTotalRepository = userDailyTotalRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate windowStart = windowStart(LocalDate.now());
+        Counters loaded = new Counters();
+        loaded.totalEntries.set(userDailyTotalRepository.sumEntryCount());
+        for (UserDailyTotal row : userDailyTotalRepository.findByDateGreaterThanEqual(windowStart)) {
+            loaded.bucket(row.getDate()).add(row.getUserId(), row.getTotalCalories(), row.getEntryCount());
+        }
+        counters = loaded;
+        logger.info("Loaded admin KPI counters: {} entries, {} daily buckets", loaded.totalEntries.get(), loaded.days.size());
+    }
+
+    @Scheduled(fixedDelayString = "${admin.kpi.reconcile-interval:PT1H}", initialDelayString = "${admin.kpi.reconcile-interval:PT1H}")
+    public void reconcile() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            logger.error("Reloading the admin KPI counters failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalChanged(DailyTotalChangedEvent event) {
+        Counters current = counters;
+        current.totalEntries.addAndGet(event.entries());
+        // Future-dated entries are kept too: they move into the window when their day comes.
+        if (!event.date().isBefore(windowStart(LocalDate.now()))) {
+            current.bucket(event.date()).add(event.userId(), event.calories(), event.entries());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        load();
+    }
+
+    /**
+     * The KPIs as of today. Weeks are calendar days: the last week is today and the six days
+     * before it, the week before is the seven days preceding that.
+     */
+    public Kpis getKpis() {
+        LocalDate today = LocalDate.now();
+        Counters current = counters;
+        current.days.keySet().removeIf(day -> day.isBefore(windowStart(today)));
+
+        long lastWeekEntries = 0;
+        long lastWeekCalories = 0;
+        long weekBeforeEntries = 0;
+        for (int daysAgo = 0; daysAgo < WINDOW_DAYS; daysAgo++) {
+            DayBucket bucket = current.days.get(today.minusDays(daysAgo));
+            if (bucket == null) {
+                continue;
+            }
+            if (daysAgo < 7) {
+                lastWeekEntries += bucket.entries.sum();
+                lastWeekCalories += bucket.calories.sum();
+            } else {
+                weekBeforeEntries += bucket.entries.sum();
+            }
+        }
+
+        DayBucket todayBucket = current.days.get(today);
+        return new Kpis(
+                current.totalEntries.get(),
+                todayBucket != null ? todayBucket.entriesByUser.size() : 0,
+                lastWeekEntries,
+                weekBeforeEntries,
+                lastWeekEntries > 0 ? (double) lastWeekCalories / lastWeekEntries : 0.0);
+    }
+
+    private static LocalDate windowStart(LocalDate today) {
+        return today.minusDays(WINDOW_DAYS - 1);
+    }
+
+    public record Kpis(long totalEntries, int activeToday, long lastWeekEntries, long weekBeforeEntries,
+                       double averageCaloriesLastWeek) {
+    }
+
+    private static class Counters {
+        private final AtomicLong totalEntries = new AtomicLong();
+        private final ConcurrentMap<LocalDate, DayBucket> days = new ConcurrentHashMap<>();
+
+        DayBucket bucket(LocalDate date) {
+            return days.computeIfAbsent(date, d -> new DayBucket());
+        }
+    }
+
+    private static class DayBucket {
+        private final LongAdder entries = new LongAdder();
+        private final LongAdder calories = new LongAdder();
+        // Entry count per user on this day; a user stops being active when theirs drops to zero
+        private final ConcurrentMap<Long, Integer> entriesByUser = new ConcurrentHashMap<>();
+
+        void add(Long userId, int calorieDelta, int entryDelta) {
+            entries.add(entryDelta);
+            calories.add(calorieDelta);
+            if (entryDelta != 0) {
+                entriesByUser.compute(userId, (id, count) -> {
+                    int updated = (count != null ? count : 0) + entryDelta;
+                    return updated > 0 ? updated : null;
+                });
+            }
+        }
+    }
+}
@@ -1,21 +1,19 @@
 package com.grupi2.calorie_tracker.services;
 
-import com.grupi2.calorie_tracker.dto.AdminStatsResponse;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
-import com.grupi2.calorie_tracker.dto.UserOverBudgetDTO;
+import com.grupi2.calorie_tracker.dto.HistoryResponse;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
 import com.grupi2.calorie_tracker.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class AdminService {
@@ -23,78 +21,26 @@ public class AdminService {
     private final UserRepository userRepository;
     private final FoodEntryRepository foodEntryRepository;
     private final FoodEntryService foodEntryService;
+    private final DailyTotalsService dailyTotalsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AdminService(UserRepository userRepository, FoodEntryRepository foodEntryRepository, FoodEntryService foodEntryService) {
+    public AdminService(UserRepository userRepository, FoodEntryRepository foodEntryRepository,
+                        FoodEntryService foodEntryService, DailyTotalsService dailyTotalsService,
+                        ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.foodEntryRepository = foodEntryRepository;
         this.foodEntryService = foodEntryService;
+        this.dailyTotalsService = dailyTotalsService;
+        this.eventPublisher = eventPublisher;
     }
 
-    public AdminStatsResponse getAdminStats() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime sevenDaysAgo = now.minusDays(7);
-        LocalDateTime fourteenDaysAgo = now.minusDays(14);
-
-        int totalUsers = (int) userRepository.count();
-        int totalEntries = (int) foodEntryRepository.count();
-        int activeToday = foodEntryRepository.countDistinctUsersByDateTimeBetween(
-                now.toLocalDate().atStartOfDay(),
-                now.toLocalDate().plusDays(1).atStartOfDay()
-        );
-
-        int lastWeekEntries = foodEntryRepository.countByDateTimeBetween(sevenDaysAgo, now);
-        int weekBeforeEntries = foodEntryRepository.countByDateTimeBetween(fourteenDaysAgo, sevenDaysAgo);
-
-        double averageCaloriesAllUsers = foodEntryRepository.getAverageCaloriesLastWeek(sevenDaysAgo);
-
-        List<UserOverBudgetDTO> usersOverBudget = getUsersOverBudget();
-
-        return new AdminStatsResponse(
-                totalUsers,
-                totalEntries,
-                activeToday,
-                lastWeekEntries,
-                weekBeforeEntries,
-                averageCaloriesAllUsers,
-                usersOverBudget
-        );
-
-
-    }
-
-    List<UserOverBudgetDTO> getUsersOverBudget() {
-        BigDecimal budgetLimit = new BigDecimal("1000");
-
-        LocalDateTime now = LocalDateTime.now();
-        int currentYear = now.getYear();
-        int currentMonth = now.getMonthValue();
-
-        // Fetch all users
-        List<User> allUsers = getAllUsers();
-
-        return allUsers.stream()
-                .map(user -> {
-                    BigDecimal monthlySpending = foodEntryRepository.calculateMonthlySpending(user.getId(), currentYear, currentMonth);
-                    // Only include users who exceeded the budget
-                    if (monthlySpending != null && monthlySpending.compareTo(budgetLimit) > 0) {
-                        return new UserOverBudgetDTO(
-                                user.getId(),
-                                user.getName(),
-                                monthlySpending
-                        );
-                    }
-                    return null;
-                })
-                .filter(userOverBudgetDTO -> userOverBudgetDTO != null)
-                .collect(Collectors.toList());
-    }
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
-    public List<FoodEntry> getUserEntries(Long userId) {
-        return foodEntryRepository.findByUserIdOrderByDateTimeDesc(userId);
+    public HistoryResponse getUserEntries(Long userId, String cursor, int limit) {
+        return foodEntryService.getHistoryPage(userId, null, null, cursor, limit);
     }
 
     public User getUserById(Long userId) {
@@ -112,17 +58,32 @@ public class AdminService {
         FoodEntry existingEntry = foodEntryRepository.findById(entryId)
                 .orElseThrow(() -> new RuntimeException("Entry not found"));
 
+        int calorieDelta = updatedEntry.getCalories() - existingEntry.getCalories();
+        BigDecimal priceDelta = updatedEntry.getPrice().subtract(existingEntry.getPrice());
+
         existingEntry.setFoodName(updatedEntry.getFoodName());
         existingEntry.setCalories(updatedEntry.getCalories());
         existingEntry.setPrice(updatedEntry.getPrice());
         existingEntry.setMealType(updatedEntry.getMealType());
         existingEntry.setDescription(updatedEntry.getDescription());
 
-        return foodEntryRepository.save(existingEntry);
+        FoodEntry savedEntry = foodEntryRepository.save(existingEntry);
+        dailyTotalsService.applyDelta(savedEntry.getUser().getId(), savedEntry.getDateTime().toLocalDate(),
+                calorieDelta, priceDelta, 0);
+        eventPublisher.publishEvent(new FoodEntryUpdatedEvent(savedEntry));
+        return savedEntry;
     }
 
     @Transactional
     public void deleteEntry(Long entryId) {
+        foodEntryRepository.findById(entryId).ifPresent(entry -> {
+            dailyTotalsService.recordEntryRemoved(entry);
+            eventPublisher.publishEvent(new FoodEntryDeletedEvent(entryId, entry.getUser().getId()));
+        });
         foodEntryRepository.deleteById(entryId);
     }
+
+    public int rebuildDailyTotals() {
+        return dailyTotalsService.rebuild();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.AdminStatsResponse;
+import com.grupi2.calorie_tracker.dto.UserOverBudgetDTO;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Admin dashboard statistics. Entry KPIs come from the in-memory AdminKpiCounters; the user
+ * count and the over-budget list still hit the database, in parallel on a small dedicated
+ * pool. A snapshot for the default budget limit is recomputed on a schedule and served from
+ * memory; its asOf tells how old it is. fresh=true, or any other budget limit, computes the
+ * statistics on the spot.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminStatsService.class);
+
+    private final UserRepository userRepository;
+    private final DailyTotalsService dailyTotalsService;
+    private final AdminKpiCounters adminKpiCounters;
+    private final BigDecimal defaultBudgetLimit;
+    private final ExecutorService queryPool;
+    private volatile AdminStatsResponse snapshot;
+
+    @Autowired
+    public AdminStatsService(UserRepository userRepository, DailyTotalsService dailyTotalsService,
+                             AdminKpiCounters adminKpiCounters,
+                             @Value("${admin.stats.budget-limit:1000}") BigDecimal defaultBudgetLimit,
+                             @Value("${admin.stats.query-threads:4}") int queryThreads) {
+        this.userRepository = userRepository;
+        this.dailyTotalsService = dailyTotalsService;
+        this.adminKpiCounters = adminKpiCounters;
+        this.defaultBudgetLimit = defaultBudgetLimit;
+        this.queryPool = Executors.newFixedThreadPool(queryThreads, new CustomizableThreadFactory("admin-stats-"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        queryPool.shutdownNow();
+    }
+
+    public AdminStatsResponse getAdminStats(BigDecimal budgetLimit, boolean fresh) {
+        if (budgetLimit.compareTo(defaultBudgetLimit) != 0) {
+            return computeStats(budgetLimit);
+        }
+        AdminStatsResponse current = snapshot;
+        if (fresh || current == null) {
+            current = computeStats(defaultBudgetLimit);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.refresh-interval:PT5M}")
+    public void refreshSnapshot() {
+        try {
+            snapshot = computeStats(defaultBudgetLimit);
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; its asOf shows it is getting old
+            logger.error("Refreshing the admin statistics snapshot failed", e);
+        }
+    }
+
+    AdminStatsResponse computeStats(BigDecimal budgetLimit) {
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<Long> totalUsers = query(userRepository::count);
+        CompletableFuture<List<UserOverBudgetDTO>> usersOverBudget = query(() -> getUsersOverBudget(budgetLimit));
+        AdminKpiCounters.Kpis kpis = adminKpiCounters.getKpis();
+
+        try {
+            return new AdminStatsResponse(
+                    totalUsers.join().intValue(),
+                    (int) kpis.totalEntries(),
+                    kpis.activeToday(),
+                    (int) kpis.lastWeekEntries(),
+                    (int) kpis.weekBeforeEntries(),
+                    kpis.averageCaloriesLastWeek(),
+                    usersOverBudget.join(),
+                    now
+            );
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Single grouped query over the current month's daily totals instead of one spending lookup per user
+    List<UserOverBudgetDTO> getUsersOverBudget(BigDecimal budgetLimit) {
+        LocalDate today = LocalDate.now();
+        return dailyTotalsService.getUsersOverBudget(today.getYear(), today.getMonthValue(), budgetLimit);
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, queryPool);
+    }
+}
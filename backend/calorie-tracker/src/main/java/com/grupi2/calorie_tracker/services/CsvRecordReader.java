@@ -0,0 +1,75 @@
+package com.grupi2.calorie_tracker.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time: comma separated, fields optionally quoted,
+ * doubled quotes inside quoted fields, and line breaks allowed inside quotes. Carriage
+ * returns outside quotes are dropped, so both LF and CRLF files work.
+ */
+class CsvRecordReader {
+
+    private final Reader reader;
+    private int lineNumber = 1;
+    private int recordLine;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (c == '\n') {
+                lineNumber++;
+            }
+            if (quoted) {
+                if (c == -1) {
+                    // Unterminated quote: keep what was read rather than dropping the record
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * @return the line the last record returned by readRecord started on
+     */
+    int getRecordLine() {
+        return recordLine;
+    }
+}
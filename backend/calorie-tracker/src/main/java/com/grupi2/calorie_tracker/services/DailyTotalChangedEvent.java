@@ -0,0 +1,11 @@
+package com.grupi2.calorie_tracker.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published whenever a user's rollup row for a day changes, carrying the delta that was
+ * applied. Listeners that cache or count derived values should react after commit.
+ */
+public record DailyTotalChangedEvent(Long userId, LocalDate date, int calories, BigDecimal price, int entries) {
+}
@@ -0,0 +1,50 @@
+package com.grupi2.calorie_tracker.services;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached aggregates a rollup change affects: that user's day and that user's month.
+ * Runs after commit, so a reader cannot put the pre-commit value back into the cache
+ * straight after the eviction.
+ */
+@Component
+public class DailyTotalsCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public DailyTotalsCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalChanged(DailyTotalChangedEvent event) {
+        // Keys match the default key generation for the @Cacheable methods in DailyTotalsService
+        evict(DailyTotalsService.DAILY_CALORIES_CACHE, new SimpleKey(event.userId(), event.date()));
+        evict(DailyTotalsService.MONTHLY_TOTALS_CACHE,
+                new SimpleKey(event.userId(), event.date().getYear(), event.date().getMonthValue()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        clear(DailyTotalsService.DAILY_CALORIES_CACHE);
+        clear(DailyTotalsService.MONTHLY_TOTALS_CACHE);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.grupi2.calorie_tracker.services;
+
+/**
+ * Published when the whole rollup has been recomputed, so every derived value may have changed.
+ */
+public record DailyTotalsRebuiltEvent(int rows) {
+}
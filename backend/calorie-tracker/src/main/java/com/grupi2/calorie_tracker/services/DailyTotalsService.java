@@ -0,0 +1,118 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.DailyTotalDTO;
+import com.grupi2.calorie_tracker.dto.UserOverBudgetDTO;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.UserDailyTotal;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the user_daily_totals rollup (one row per user and day) that backs
+ * the calorie and spending aggregates. Every write to foodentries must apply
+ * its delta here inside the same transaction. Per-user reads are cached; each
+ * delta publishes a DailyTotalChangedEvent that evicts the affected day and month.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailyTotalsService {
+    private static final Logger logger = LoggerFactory.getLogger(DailyTotalsService.class);
+    public static final String DAILY_CALORIES_CACHE = "dailyCalories";
+    public static final String MONTHLY_TOTALS_CACHE = "monthlyTotals";
+
+    private final UserDailyTotalRepository userDailyTotalRepository;
+    private final FoodEntryRepository foodEntryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void recordEntryAdded(FoodEntry entry) {
+        applyDelta(entry.getUser().getId(), entry.getDateTime().toLocalDate(),
+                entry.getCalories(), entry.getPrice(), 1);
+    }
+
+    @Transactional
+    public void recordEntriesAdded(List<FoodEntry> entries) {
+        Map<Long, Map<LocalDate, List<FoodEntry>>> byUserAndDay = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.getUser().getId(),
+                        Collectors.groupingBy(entry -> entry.getDateTime().toLocalDate())));
+        byUserAndDay.forEach((userId, days) -> days.forEach((date, dayEntries) -> applyDelta(userId, date,
+                dayEntries.stream().mapToInt(FoodEntry::getCalories).sum(),
+                dayEntries.stream().map(FoodEntry::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add),
+                dayEntries.size())));
+    }
+
+    @Transactional
+    public void recordEntryRemoved(FoodEntry entry) {
+        applyDelta(entry.getUser().getId(), entry.getDateTime().toLocalDate(),
+                -entry.getCalories(), entry.getPrice().negate(), -1);
+    }
+
+    @Transactional
+    public void applyDelta(Long userId, LocalDate date, int calories, BigDecimal price, int entries) {
+        userDailyTotalRepository.addToDailyTotal(userId, date, calories, price, entries);
+        eventPublisher.publishEvent(new DailyTotalChangedEvent(userId, date, calories, price, entries));
+    }
+
+    @Cacheable(DAILY_CALORIES_CACHE)
+    public Integer getDailyCalories(Long userId, LocalDate date) {
+        return userDailyTotalRepository.findByUserIdAndDate(userId, date)
+                .map(UserDailyTotal::getTotalCalories)
+                .orElse(0);
+    }
+
+    public int getTotalCalories(Long userId, LocalDate start, LocalDate end) {
+        Long calories = userDailyTotalRepository.sumCalories(userId, start, end);
+        return calories != null ? calories.intValue() : 0;
+    }
+
+    /**
+     * The user's rollup rows for one month, oldest first. At most 31 rows, so monthly
+     * spending and high-calorie days are both derived from this one cached list.
+     */
+    @Cacheable(MONTHLY_TOTALS_CACHE)
+    public List<DailyTotalDTO> getMonthTotals(Long userId, int year, int month) {
+        LocalDate startOfMonth = LocalDate.of(year, month, 1);
+        return List.copyOf(userDailyTotalRepository.findDailyTotals(userId, startOfMonth, startOfMonth.plusMonths(1)));
+    }
+
+    public List<UserOverBudgetDTO> getUsersOverBudget(int year, int month, BigDecimal budgetLimit) {
+        LocalDate startOfMonth = LocalDate.of(year, month, 1);
+        return userDailyTotalRepository.findUsersOverBudget(startOfMonth, startOfMonth.plusMonths(1), budgetLimit);
+    }
+
+    /**
+     * Recomputes the whole rollup from foodentries. Used for the initial backfill
+     * and to repair drift after manual data fixes.
+     */
+    @Transactional
+    public int rebuild() {
+        userDailyTotalRepository.deleteAllTotals();
+        int rows = userDailyTotalRepository.insertTotalsFromEntries();
+        logger.info("Rebuilt user_daily_totals with {} rows", rows);
+        eventPublisher.publishEvent(new DailyTotalsRebuiltEvent(rows));
+        return rows;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (userDailyTotalRepository.count() == 0 && foodEntryRepository.count() > 0) {
+            rebuild();
+        }
+    }
+}
@@ -1,28 +1,205 @@
 package com.grupi2.calorie_tracker.services;
 
+import com.grupi2.calorie_tracker.entities.EmailOutboxMessage;
+import com.grupi2.calorie_tracker.repositories.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Outbox-backed mail delivery. sendEmail only persists the message and queues it; a small
+ * dedicated pool sends queued messages in batches over one SMTP connection per batch.
+ * Failed messages are retried with exponential backoff, and a scheduled poller re-queues
+ * anything still pending (including messages left over from before a restart).
+ * Delivery is at-least-once. A sent message's body is cleared, since it may hold a
+ * confirmation code, and sent or failed rows are deleted after email.outbox.retention.
+ */
 @Service
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+    private static final int BATCH_SIZE = 20;
+    private static final int POLL_LIMIT = 200;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
+    private final int senderThreads;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final BlockingQueue<EmailOutboxMessage> queue;
+    private final Set<Long> queuedIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senderPool;
+    private volatile boolean running = true;
+
     @Autowired
-    private JavaMailSender mailSender;
+    public EmailService(JavaMailSender mailSender, EmailOutboxRepository outboxRepository,
+                        @Value("${email.sender.threads:2}") int senderThreads,
+                        @Value("${email.queue.capacity:500}") int queueCapacity,
+                        @Value("${email.retry.max-attempts:5}") int maxAttempts,
+                        @Value("${email.retry.backoff:PT30S}") Duration retryBackoff,
+                        @Value("${email.outbox.retention:P7D}") Duration retention) {
+        this.mailSender = mailSender;
+        this.outboxRepository = outboxRepository;
+        this.senderThreads = senderThreads;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.senderPool = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("email-sender-"));
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < senderThreads; i++) {
+            senderPool.submit(this::runSender);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        senderPool.shutdownNow();
+    }
 
     public void sendEmail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(to);
         message.setSubject(subject);
-        message.setText(text);
+        message.setBody(text);
+        message.setNextAttemptAt(LocalDateTime.now());
+
+        enqueue(outboxRepository.save(message));
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT30S}")
+    public void enqueueDueMessages() {
+        outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                        EmailOutboxMessage.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, POLL_LIMIT))
+                .forEach(this::enqueue);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.cleanup-interval:PT6H}")
+    @Transactional
+    public void deleteFinishedMessages() {
+        int deleted = outboxRepository.deleteByStatusCreatedBefore(
+                List.of(EmailOutboxMessage.Status.SENT, EmailOutboxMessage.Status.FAILED),
+                LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Deleted {} sent or failed emails from the outbox", deleted);
+        }
+    }
+
+    private void enqueue(EmailOutboxMessage message) {
+        // A full queue is not an error: the row stays pending and the poller offers it again.
+        if (queuedIds.add(message.getId()) && !queue.offer(message)) {
+            queuedIds.remove(message.getId());
+        }
+    }
 
+    private void runSender() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                List<EmailOutboxMessage> batch = new ArrayList<>(BATCH_SIZE);
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Email sender failed", e);
+            }
+        }
+    }
+
+    void deliver(List<EmailOutboxMessage> batch) {
+        SimpleMailMessage[] mails = batch.stream().map(this::toMail).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
         try {
-            mailSender.send(message);
-            System.out.println("Email sent successfully to: " + to);
-        } catch (Exception e) {
-            System.out.println("Failed to send email to: " + to + ", Error: " + e.getMessage());
-            e.printStackTrace();
+            mailSender.send(mails);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            batchFailure = failures.isEmpty() ? e : null;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Exception failure = batchFailure != null ? batchFailure : failures.get(mails[i]);
+                if (failure == null) {
+                    markSent(batch.get(i), now);
+                } else {
+                    markFailed(batch.get(i), failure, now);
+                }
+            }
+            outboxRepository.saveAll(batch);
+        } finally {
+            batch.forEach(message -> queuedIds.remove(message.getId()));
+        }
+    }
+
+    private void markSent(EmailOutboxMessage message, LocalDateTime now) {
+        message.setStatus(EmailOutboxMessage.Status.SENT);
+        message.setSentAt(now);
+        message.setLastError(null);
+        message.setBody(null);
+    }
+
+    private void markFailed(EmailOutboxMessage message, Exception failure, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(failure.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutboxMessage.Status.FAILED);
+            logger.warn("Giving up on email {} to {} after {} attempts", message.getId(), message.getRecipient(), attempts);
+            return;
+        }
+
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        message.setNextAttemptAt(now.plus(backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff));
+    }
+
+    private SimpleMailMessage toMail(EmailOutboxMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        return mail;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
         }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
     }
 }
@@ -0,0 +1,36 @@
+package com.grupi2.calorie_tracker.services;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(new MediaType("application", "x-ndjson"));
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the format for a request parameter such as "csv", or null if it is not supported
+     */
+    public static ExportFormat fromParameter(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+
+import java.util.List;
+
+/**
+ * Published when new food entries have been saved. Listeners should react after commit.
+ */
+public record FoodEntriesCreatedEvent(List<FoodEntry> entries) {
+}
@@ -0,0 +1,8 @@
+package com.grupi2.calorie_tracker.services;
+
+/**
+ * Published inside the transaction that deletes a food entry. Listeners outside the database
+ * should react after commit.
+ */
+public record FoodEntryDeletedEvent(Long entryId, Long userId) {
+}
@@ -0,0 +1,87 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes food entries to an output stream as CSV or newline-delimited JSON. Rows are
+ * read from a database cursor and written one at a time, so memory use does not grow
+ * with the number of entries. Called from a StreamingResponseBody, i.e. after the
+ * controller has returned, so each export runs in its own read-only transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class FoodEntryExportService {
+    static final String CSV_HEADER =
+            "id,user_id,food_name,calories,price,meal_type,description,date_time,updated_at";
+
+    private final FoodEntryRepository foodEntryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportUserEntries(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<FoodEntryDTO> entries = foodEntryRepository.streamByUserId(userId)) {
+            write(entries, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAllEntries(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<FoodEntryDTO> entries = foodEntryRepository.streamAll()) {
+            write(entries, format, out);
+        }
+    }
+
+    void write(Stream<FoodEntryDTO> entries, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        Iterator<FoodEntryDTO> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            FoodEntryDTO entry = iterator.next();
+            writer.write(format == ExportFormat.CSV ? toCsvRow(entry) : objectMapper.writeValueAsString(entry));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String toCsvRow(FoodEntryDTO entry) {
+        return String.join(",",
+                String.valueOf(entry.getId()),
+                String.valueOf(entry.getUserId()),
+                csvField(entry.getFoodName()),
+                String.valueOf(entry.getCalories()),
+                entry.getPrice().toPlainString(),
+                entry.getMealType() != null ? entry.getMealType().name() : "",
+                csvField(entry.getDescription()),
+                entry.getDateTime() != null ? entry.getDateTime().toString() : "",
+                entry.getUpdatedAt() != null ? entry.getUpdatedAt().toString() : "");
+    }
+
+    // RFC 4180 quoting: fields containing a separator, quote or line break are quoted and
+    // embedded quotes doubled.
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
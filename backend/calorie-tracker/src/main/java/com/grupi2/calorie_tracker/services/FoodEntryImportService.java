@@ -0,0 +1,281 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
+import com.grupi2.calorie_tracker.dto.ImportJobStatus;
+import com.grupi2.calorie_tracker.dto.ImportRowError;
+import com.grupi2.calorie_tracker.entities.MealType;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports food entries from a CSV file (the same columns as the CSV export). The upload is
+ * spooled to a temporary file and processed on a small dedicated pool: rows are read one at
+ * a time, checked against the FoodEntryRequest constraints and saved in chunks, each chunk in
+ * its own transaction through FoodEntryService.createFoodEntries. Invalid rows are reported
+ * and skipped; the rest of the file is still imported. Callers poll getStatus for progress.
+ */
+@Service
+public class FoodEntryImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodEntryImportService.class);
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final List<String> REQUIRED_COLUMNS = List.of("food_name", "calories", "price", "meal_type", "date_time");
+
+    private final FoodEntryService foodEntryService;
+    private final Validator validator;
+    private final Duration retention;
+    private final ThreadPoolExecutor importPool;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FoodEntryImportService(FoodEntryService foodEntryService, Validator validator,
+                                  @Value("${food-import.threads:2}") int threads,
+                                  @Value("${food-import.queue-capacity:10}") int queueCapacity,
+                                  @Value("${food-import.retention:PT1H}") Duration retention) {
+        this.foodEntryService = foodEntryService;
+        this.validator = validator;
+        this.retention = retention;
+        this.importPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("food-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        importPool.shutdownNow();
+    }
+
+    /**
+     * Spools the file and queues the import.
+     *
+     * @throws RejectedExecutionException if too many imports are already queued
+     */
+    public ImportJobStatus startImport(Long userId, MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile("food-import-", ".csv");
+        file.transferTo(spooled);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId);
+        jobs.put(job.id, job);
+        try {
+            importPool.execute(() -> run(job, spooled));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        return job.toStatus();
+    }
+
+    public Optional<ImportJobStatus> getStatus(Long userId, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    @Scheduled(fixedDelayString = "${food-import.cleanup-interval:PT10M}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(ImportJob job, Path spooled) {
+        try (Reader reader = Files.newBufferedReader(spooled, StandardCharsets.UTF_8)) {
+            importRows(job, reader);
+        } catch (Exception e) {
+            logger.error("Food entry import {} failed", job.id, e);
+            job.finish(ImportJobStatus.State.FAILED, "Import failed: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled import file {}", spooled, e);
+            }
+        }
+    }
+
+    void importRows(ImportJob job, Reader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            job.finish(ImportJobStatus.State.FAILED, "The file is empty.");
+            return;
+        }
+        Map<String, Integer> columns = columnIndexes(header);
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(name -> !columns.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            job.finish(ImportJobStatus.State.FAILED, "Missing column(s): " + String.join(", ", missing));
+            return;
+        }
+
+        List<FoodEntryRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        List<String> fields;
+        while ((fields = csv.readRecord()) != null) {
+            if (fields.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            int row = csv.getRecordLine();
+            job.rowsProcessed.incrementAndGet();
+            try {
+                FoodEntryRequest request = toRequest(columns, fields);
+                String violations = validate(request);
+                if (violations != null) {
+                    job.recordError(row, violations);
+                    continue;
+                }
+                chunk.add(request);
+                chunkRows.add(row);
+            } catch (IllegalArgumentException e) {
+                job.recordError(row, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                saveChunk(job, chunk, chunkRows);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+                chunkRows = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(job, chunk, chunkRows);
+        }
+        job.finish(ImportJobStatus.State.COMPLETED, null);
+    }
+
+    private void saveChunk(ImportJob job, List<FoodEntryRequest> chunk, List<Integer> chunkRows) {
+        try {
+            foodEntryService.createFoodEntries(chunk, job.userId);
+            job.imported.addAndGet(chunk.size());
+        } catch (RuntimeException e) {
+            logger.warn("Food entry import {} could not save rows {}-{}", job.id,
+                    chunkRows.get(0), chunkRows.get(chunkRows.size() - 1), e);
+            chunkRows.forEach(row -> job.recordError(row, "Could not be saved"));
+        }
+    }
+
+    private static Map<String, Integer> columnIndexes(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Spreadsheet tools often prepend a UTF-8 byte order mark
+            String name = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+            columns.putIfAbsent(name.trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static FoodEntryRequest toRequest(Map<String, Integer> columns, List<String> fields) {
+        FoodEntryRequest request = new FoodEntryRequest();
+        request.setFoodName(value(columns, fields, "food_name"));
+        request.setCalories(parse("calories", value(columns, fields, "calories"), Integer::valueOf));
+        request.setPrice(parse("price", value(columns, fields, "price"), BigDecimal::new));
+        request.setMealType(parse("meal_type", value(columns, fields, "meal_type"),
+                text -> MealType.valueOf(text.toUpperCase(Locale.ROOT))));
+        request.setDateTime(parse("date_time", value(columns, fields, "date_time"), LocalDateTime::parse));
+        request.setDescription(value(columns, fields, "description"));
+        return request;
+    }
+
+    private static String value(Map<String, Integer> columns, List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    private static <T> T parse(String column, String text, Function<String, T> parser) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return parser.apply(text);
+        } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + text + "'");
+        }
+    }
+
+    private String validate(FoodEntryRequest request) {
+        Set<ConstraintViolation<FoodEntryRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; "));
+    }
+
+    static class ImportJob {
+        private final String id;
+        private final Long userId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger rowsProcessed = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<ImportRowError> errors = new CopyOnWriteArrayList<>();
+        private volatile ImportJobStatus.State state = ImportJobStatus.State.RUNNING;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, Long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        void recordError(int row, String error) {
+            if (failed.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(row, error));
+            }
+        }
+
+        void finish(ImportJobStatus.State finalState, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        ImportJobStatus toStatus() {
+            return new ImportJobStatus(id, state, rowsProcessed.get(), imported.get(), failed.get(),
+                    List.copyOf(errors), message, startedAt, finishedAt);
+        }
+    }
+}
@@ -2,9 +2,16 @@ package com.grupi2.calorie_tracker.services;
 
 import com.grupi2.calorie_tracker.entities.FoodEntry;
 import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.dto.DailyTotalDTO;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
+import com.grupi2.calorie_tracker.dto.HistoryCursor;
+import com.grupi2.calorie_tracker.dto.HistoryResponse;
 import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,9 +19,7 @@ import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.temporal.TemporalAdjusters;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -22,13 +27,48 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class FoodEntryService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Bounds used when a history page is requested without a date range
+    private static final LocalDate ALL_TIME_START = LocalDate.of(1970, 1, 1);
+    private static final LocalDate ALL_TIME_END = LocalDate.of(9999, 12, 31);
+
     private final FoodEntryRepository foodEntryRepository;
     private final UserService userService;
+    private final DailyTotalsService dailyTotalsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public FoodEntry createFoodEntry(FoodEntryRequest request, Long userId) {
         User user = userService.getUserById(userId);
 
+        // A single entry is logged as it is eaten, so it gets the server's clock like it did
+        // under @CreationTimestamp. Only batch and import keep the time sent by the client.
+        FoodEntry foodEntry = toEntity(request, user);
+        foodEntry.setDateTime(LocalDateTime.now());
+        FoodEntry savedEntry = foodEntryRepository.save(foodEntry);
+        dailyTotalsService.recordEntryAdded(savedEntry);
+        eventPublisher.publishEvent(new FoodEntriesCreatedEvent(List.of(savedEntry)));
+        return savedEntry;
+    }
+
+    /**
+     * Inserts several entries for one user in a single transaction. The user is looked up
+     * once, the rows go out as JDBC batches and the rollup gets one update per day.
+     */
+    @Transactional
+    public List<FoodEntry> createFoodEntries(List<FoodEntryRequest> requests, Long userId) {
+        User user = userService.getUserById(userId);
+
+        List<FoodEntry> savedEntries = foodEntryRepository.saveAll(
+                requests.stream().map(request -> toEntity(request, user)).toList());
+        dailyTotalsService.recordEntriesAdded(savedEntries);
+        eventPublisher.publishEvent(new FoodEntriesCreatedEvent(savedEntries));
+        return savedEntries;
+    }
+
+    private FoodEntry toEntity(FoodEntryRequest request, User user) {
         FoodEntry foodEntry = new FoodEntry();
         foodEntry.setUser(user);
         foodEntry.setFoodName(request.getFoodName());
@@ -37,72 +77,90 @@ public class FoodEntryService {
         foodEntry.setDateTime(request.getDateTime());
         foodEntry.setMealType(request.getMealType());
         foodEntry.setDescription(request.getDescription());
-
-        return foodEntryRepository.save(foodEntry);
+        return foodEntry;
     }
 
+    @Transactional
     public boolean deleteFoodEntry(Long userId, Long foodEntryId) {
         Optional<FoodEntry> foodEntry = foodEntryRepository.findByIdAndUserId(foodEntryId, userId);
         if (foodEntry.isPresent()) {
             foodEntryRepository.delete(foodEntry.get());
+            dailyTotalsService.recordEntryRemoved(foodEntry.get());
+            eventPublisher.publishEvent(new FoodEntryDeletedEvent(foodEntryId, userId));
             return true;
         }
         return false;
     }
 
 
-    public List<FoodEntry> getUserFoodEntriesForDay(Long userId, LocalDateTime date) {
+    public List<FoodEntryDTO> getUserFoodEntriesForDay(Long userId, LocalDateTime date) {
         LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
-        return foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
-                userId, startOfDay, endOfDay);
+        return foodEntryRepository.findEntriesBetween(userId, startOfDay, endOfDay);
     }
 
     public Integer getDailyCalories(Long userId, LocalDateTime date) {
-        LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
-        return foodEntryRepository.getTotalCaloriesForUserBetweenDates(
-                userId, startOfDay, endOfDay);
+        return dailyTotalsService.getDailyCalories(userId, date.toLocalDate());
     }
 
     public List<LocalDateTime> getHighCalorieDays(Long userId, int year, int month, int calorieThreshold) {
-        List<Date> dates = foodEntryRepository.findHighCalorieDays(userId, year, month, calorieThreshold);
-        return dates.stream()
-                .map(date -> date.toInstant()
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDateTime())
+        return dailyTotalsService.getMonthTotals(userId, year, month).stream()
+                .filter(day -> day.getTotalCalories() > calorieThreshold)
+                .map(day -> day.getDate().atStartOfDay())
                 .collect(Collectors.toList());
     }
 
     public BigDecimal getMonthlySpending(Long userId, int year, int month) {
-        BigDecimal spending = foodEntryRepository.calculateMonthlySpending(userId, year, month);
-        return spending != null ? spending : BigDecimal.ZERO;
+        return dailyTotalsService.getMonthTotals(userId, year, month).stream()
+                .map(DailyTotalDTO::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
 
     
-    public List<FoodEntry> getUserFoodEntriesForWeek(Long userId, int year, int week) {
+    public List<FoodEntryDTO> getUserFoodEntriesForWeek(Long userId, int year, int week) {
         
         LocalDate startOfWeek = LocalDate.of(year, 1, 1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).plusWeeks(week - 1);
-        LocalDate endOfWeek = startOfWeek.plusDays(6);
-        return foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(userId, startOfWeek.atStartOfDay(), endOfWeek.atTime(23, 59, 59));
+        LocalDate endOfWeek = startOfWeek.plusWeeks(1);
+        return foodEntryRepository.findEntriesBetween(userId, startOfWeek.atStartOfDay(), endOfWeek.atStartOfDay());
     }
 
     
-    public List<FoodEntry> getUserFoodEntriesForMonth(Long userId, int year, int month) {
+    public List<FoodEntryDTO> getUserFoodEntriesForMonth(Long userId, int year, int month) {
         LocalDate startOfMonth = LocalDate.of(year, month, 1);
-        LocalDate endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
-        return foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(userId, startOfMonth.atStartOfDay(), endOfMonth.atTime(23, 59, 59));
+        LocalDate endOfMonth = startOfMonth.plusMonths(1);
+        return foodEntryRepository.findEntriesBetween(userId, startOfMonth.atStartOfDay(), endOfMonth.atStartOfDay());
     }
 
-    public List<FoodEntry> getUserFoodEntriesForAllTime(Long userId) {
+    /**
+     * Returns one page of a user's history, newest first. The page is located by an
+     * opaque cursor over (dateTime, id) so deep pages cost the same as the first one;
+     * totalCalories covers the whole range and is read from the daily rollup.
+     */
+    public HistoryResponse getHistoryPage(Long userId, LocalDate startDate, LocalDate endDate, String cursor, int limit) {
+        LocalDate start = startDate != null ? startDate : ALL_TIME_START;
+        LocalDate end = endDate != null ? endDate.plusDays(1) : ALL_TIME_END;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<FoodEntryDTO> entries;
+        if (cursor == null || cursor.isBlank()) {
+            entries = foodEntryRepository.findHistoryPage(
+                    userId, start.atStartOfDay(), end.atStartOfDay(), pageable);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            entries = foodEntryRepository.findHistoryPageAfter(
+                    userId, start.atStartOfDay(), position.getDateTime(), position.getId(), pageable);
+        }
 
-        return foodEntryRepository.findByUserIdOrderByDateTimeDesc(userId);
-    }
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            nextCursor = HistoryCursor.of(entries.get(pageSize - 1)).encode();
+        }
 
-    
-    public List<FoodEntry> getUserFoodEntriesForAllTimeWithinRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(userId, startDate, endDate);
+        int totalCalories = dailyTotalsService.getTotalCalories(userId, start, end);
+        return new HistoryResponse(entries, totalCalories, nextCursor);
     }
 
 }
\ No newline at end of file
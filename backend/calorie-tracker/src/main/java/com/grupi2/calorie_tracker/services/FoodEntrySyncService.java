@@ -0,0 +1,116 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryChangesResponse;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.SyncWatermark;
+import com.grupi2.calorie_tracker.entities.FoodEntryDeletion;
+import com.grupi2.calorie_tracker.repositories.FoodEntryDeletionRepository;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Delta sync for clients that keep a local copy of a user's food log. A call returns the
+ * entries created or edited after the client's watermark, ordered by (updatedAt, id), the
+ * ids of entries deleted since then, and a new watermark. Deletions are recorded as
+ * tombstones in the deleting transaction and kept for food-sync.tombstone-retention; a
+ * watermark older than that starts the client over from scratch.
+ */
+@Service
+public class FoodEntrySyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodEntrySyncService.class);
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 1000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final FoodEntryRepository foodEntryRepository;
+    private final FoodEntryDeletionRepository deletionRepository;
+    private final Duration watermarkLag;
+    private final Duration tombstoneRetention;
+
+    @Autowired
+    public FoodEntrySyncService(FoodEntryRepository foodEntryRepository,
+                                FoodEntryDeletionRepository deletionRepository,
+                                @Value("${food-sync.watermark-lag:PT5S}") Duration watermarkLag,
+                                @Value("${food-sync.tombstone-retention:P90D}") Duration tombstoneRetention) {
+        this.foodEntryRepository = foodEntryRepository;
+        this.deletionRepository = deletionRepository;
+        this.watermarkLag = watermarkLag;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Changes since {@code watermark}, or the whole log when it is null. At most
+     * {@code limit} entries are returned; hasMore tells the client to call again.
+     */
+    @Transactional(readOnly = true)
+    public FoodEntryChangesResponse getChangesSince(Long userId, String watermark, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        SyncWatermark from = watermark == null || watermark.isBlank() ? null : SyncWatermark.decode(watermark);
+        boolean reset = from != null && from.getUpdatedAt().isBefore(now.minus(tombstoneRetention));
+        if (reset) {
+            from = null;
+        }
+        LocalDateTime after = from != null ? from.getUpdatedAt() : BEGINNING;
+        long afterId = from != null ? from.getId() : 0L;
+
+        // updatedAt is set when the row is flushed, not when it commits, so a slow transaction
+        // can commit a timestamp older than one already handed out. Stopping the window a
+        // little short of now leaves those rows for the next call instead of skipping them.
+        // Truncated to the precision of the updated_at column.
+        LocalDateTime upTo = now.minus(watermarkLag).truncatedTo(ChronoUnit.MICROS);
+        if (upTo.isBefore(after)) {
+            upTo = after;
+        }
+
+        List<FoodEntryDTO> changed = foodEntryRepository.findChangesAfter(
+                userId, after, afterId, upTo, PageRequest.of(0, limit + 1));
+        boolean hasMore = changed.size() > limit;
+        SyncWatermark next;
+        if (hasMore) {
+            changed = changed.subList(0, limit);
+            FoodEntryDTO last = changed.get(limit - 1);
+            next = new SyncWatermark(last.getUpdatedAt(), last.getId());
+        } else {
+            // Every entry up to and including upTo has been delivered
+            next = new SyncWatermark(upTo, Long.MAX_VALUE);
+        }
+
+        // A client starting from scratch has nothing to delete
+        List<Long> deleted = from == null ? List.of()
+                : deletionRepository.findDeletedEntryIds(userId, after, next.getUpdatedAt());
+        return new FoodEntryChangesResponse(changed, deleted, next.encode(), hasMore, reset);
+    }
+
+    // A plain listener runs inside the deleting transaction, so the tombstone commits with the delete
+    @EventListener
+    public void onFoodEntryDeleted(FoodEntryDeletedEvent event) {
+        deletionRepository.save(new FoodEntryDeletion(event.entryId(), event.userId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${food-sync.cleanup-interval:PT6H}")
+    @Transactional
+    public void deleteExpiredTombstones() {
+        int deleted = deletionRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired food entry tombstones", deleted);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+
+/**
+ * Published when an existing food entry has been edited. Listeners should react after commit.
+ */
+public record FoodEntryUpdatedEvent(FoodEntry entry) {
+}
@@ -0,0 +1,139 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.MealType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prefix index of food names with usage counts. Names are kept sorted by their normalized
+ * form, so all names starting with a prefix are one contiguous sub-map. Holds at most
+ * about {@code capacity} names: past that, the least used ones are dropped in one pass.
+ * For each name it remembers up to {@code trackedUsers} distinct users who logged it,
+ * which is enough to tell whether at least that many did.
+ */
+class FoodNameIndex {
+
+    // Ranking: most used first, then most recently used
+    static final Comparator<Usage> BY_RANK = Comparator.comparingLong(Usage::count)
+            .thenComparing(Usage::lastUsedAt);
+
+    private final int capacity;
+    private final int trackedUsers;
+    private final ConcurrentSkipListMap<String, Usage> names = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    FoodNameIndex(int capacity, int trackedUsers) {
+        this.capacity = capacity;
+        this.trackedUsers = trackedUsers;
+    }
+
+    void record(Long userId, String foodName, Integer calories, BigDecimal price, MealType mealType,
+                LocalDateTime usedAt) {
+        String key = FoodNames.normalize(foodName);
+        if (key.isEmpty()) {
+            return;
+        }
+        Usage used = new Usage(foodName.trim(), 1, Set.of(userId), calories, price, mealType, usedAt);
+        while (true) {
+            Usage existing = names.putIfAbsent(key, used);
+            if (existing == null) {
+                // Trimming in bulk past a 10% margin keeps inserts cheap
+                if (size.incrementAndGet() > capacity + capacity / 10) {
+                    trim();
+                }
+                return;
+            }
+            if (names.replace(key, existing, existing.plus(used, trackedUsers))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, best ranked first, skipping
+     * normalized names in {@code exclude} and names logged by fewer than {@code minUsers}
+     * distinct users, which must not exceed the number of users tracked.
+     */
+    List<Map.Entry<String, Usage>> suggest(String prefix, int limit, int minUsers, Set<String> exclude) {
+        String from = FoodNames.normalize(prefix);
+        ConcurrentNavigableMap<String, Usage> matches = names.subMap(from, true, from + Character.MAX_VALUE, false);
+
+        PriorityQueue<Map.Entry<String, Usage>> best = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue(BY_RANK));
+        for (Map.Entry<String, Usage> match : matches.entrySet()) {
+            if (match.getValue().users().size() < minUsers || exclude.contains(match.getKey())) {
+                continue;
+            }
+            best.add(match);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Map.Entry<String, Usage>> ranked = new ArrayList<>(best);
+        ranked.sort(Map.Entry.<String, Usage>comparingByValue(BY_RANK).reversed());
+        return ranked;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private void trim() {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = size.get() - capacity;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<String, Usage>> leastUsed = new ArrayList<>(names.entrySet());
+            leastUsed.sort(Map.Entry.comparingByValue(BY_RANK));
+            for (Map.Entry<String, Usage> entry : leastUsed.subList(0, Math.min(excess, leastUsed.size()))) {
+                if (names.remove(entry.getKey(), entry.getValue())) {
+                    size.decrementAndGet();
+                }
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    record Usage(String displayName, long count, Set<Long> users, Integer calories, BigDecimal price,
+                 MealType mealType, LocalDateTime lastUsedAt) {
+
+        // The most recent use decides the spelling and the prefilled values
+        Usage plus(Usage other, int trackedUsers) {
+            Usage latest = other.lastUsedAt().isBefore(lastUsedAt) ? this : other;
+            return new Usage(latest.displayName(), count + other.count(), union(users, other.users(), trackedUsers),
+                    latest.calories(), latest.price(), latest.mealType(), latest.lastUsedAt());
+        }
+
+        private static Set<Long> union(Set<Long> users, Set<Long> more, int limit) {
+            if (users.size() >= limit || users.containsAll(more)) {
+                return users;
+            }
+            Set<Long> union = new HashSet<>(users);
+            for (Long user : more) {
+                if (union.size() >= limit) {
+                    break;
+                }
+                union.add(user);
+            }
+            return Set.copyOf(union);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.grupi2.calorie_tracker.services;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The one spelling of a food name used to group entries: trimmed, single-spaced, lower case.
+ */
+final class FoodNames {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private FoodNames() {
+    }
+
+    static String normalize(String foodName) {
+        return WHITESPACE.matcher(foodName.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,361 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over a user's food names and descriptions, backed by an embedded Lucene
+ * index on local disk. Entries are indexed after commit on a single indexer thread, so
+ * writes never wait for Lucene, and searches see them once the indexer queue has drained.
+ * Every document carries its user id and every query is filtered by it. Index changes are
+ * committed to disk on a schedule; whatever a crash loses in between is restored by
+ * reindex, which rebuilds the index from foodentries and also runs on startup when the
+ * index is empty.
+ */
+@Service
+public class FoodSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodSearchService.class);
+    public static final int MAX_LIMIT = 100;
+    static final int MAX_QUERY_TERMS = 10;
+    private static final float FOOD_NAME_BOOST = 2.0f;
+
+    private static final String ID = "id";
+    private static final String USER_ID = "user_id";
+    private static final String FOOD_NAME = "food_name";
+    private static final String DESCRIPTION = "description";
+    private static final String MEAL_TYPE = "meal_type";
+    private static final String DATE_TIME = "date_time";
+
+    private final FoodEntryRepository foodEntryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // One thread keeps index updates in commit order; a reindex queues behind earlier updates
+    private final ThreadPoolExecutor indexer;
+    private final AtomicBoolean reindexQueued = new AtomicBoolean();
+
+    @Autowired
+    public FoodSearchService(FoodEntryRepository foodEntryRepository, PlatformTransactionManager transactionManager,
+                             @Value("${food-search.index-dir:data/food-search}") Path indexDir,
+                             @Value("${food-search.queue-capacity:10000}") int queueCapacity) throws IOException {
+        this(foodEntryRepository, transactionManager, FSDirectory.open(indexDir), queueCapacity);
+    }
+
+    FoodSearchService(FoodEntryRepository foodEntryRepository, PlatformTransactionManager transactionManager,
+                      Directory directory, int queueCapacity) throws IOException {
+        this.foodEntryRepository = foodEntryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = directory;
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.indexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("food-search-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * The user's entries matching every word of {@code text}, best matches first. Words match
+     * the food name or the description; the last one also matches as a prefix, so the
+     * search works while typing. Dates are inclusive and both optional.
+     */
+    public List<FoodEntryDTO> search(Long userId, String text, LocalDate from, LocalDate to,
+                                     MealType mealType, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'.");
+        }
+        Query textQuery = textQuery(text);
+        if (textQuery == null) {
+            throw new IllegalArgumentException("Search query is required.");
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(USER_ID, userId.toString())), BooleanClause.Occur.FILTER);
+        if (from != null || to != null) {
+            long start = from != null ? epochSecond(from.atStartOfDay()) : Long.MIN_VALUE;
+            long end = to != null ? epochSecond(to.plusDays(1).atStartOfDay()) - 1 : Long.MAX_VALUE;
+            query.add(LongPoint.newRangeQuery(DATE_TIME, start, end), BooleanClause.Occur.FILTER);
+        }
+        if (mealType != null) {
+            query.add(new TermQuery(new Term(MEAL_TYPE, mealType.name())), BooleanClause.Occur.FILTER);
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc hit : searcher.search(query.build(), limit).scoreDocs) {
+                    ids.add(Long.valueOf(storedFields.document(hit.doc).get(ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Rows come from the database, so results show current values and skip entries
+        // deleted since they were indexed; the user filter there is a second ownership check
+        Map<Long, FoodEntryDTO> rows = foodEntryRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(FoodEntryDTO::getId, Function.identity()));
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    private Query textQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(FOOD_NAME, term)), FOOD_NAME_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD);
+            if (i == terms.size() - 1) {
+                anyField.add(new PrefixQuery(new Term(FOOD_NAME, term)), BooleanClause.Occur.SHOULD)
+                        .add(new PrefixQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD);
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(FOOD_NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (terms.size() < MAX_QUERY_TERMS && tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodEntriesCreated(FoodEntriesCreatedEvent event) {
+        List<FoodEntryDTO> entries = event.entries().stream().map(FoodEntryDTO::from).toList();
+        submit(() -> {
+            for (FoodEntryDTO entry : entries) {
+                writer.updateDocument(idTerm(entry.getId()), toDocument(entry));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodEntryUpdated(FoodEntryUpdatedEvent event) {
+        FoodEntryDTO entry = FoodEntryDTO.from(event.entry());
+        submit(() -> writer.updateDocument(idTerm(entry.getId()), toDocument(entry)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodEntryDeleted(FoodEntryDeletedEvent event) {
+        submit(() -> writer.deleteDocuments(idTerm(event.entryId())));
+    }
+
+    private void submit(IndexUpdate update) {
+        try {
+            indexer.execute(() -> {
+                try {
+                    update.apply();
+                    // Under a burst of writes, refresh once the queue drains rather than after each one
+                    if (indexer.getQueue().isEmpty()) {
+                        searcherManager.maybeRefresh();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Updating the food search index failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.error("Food search index queue is full, an update was dropped; reindex to catch up");
+        }
+    }
+
+    /**
+     * Queues a rebuild of the whole index from foodentries. Returns false if one is already
+     * queued. Searches keep using the old index until the rebuild has finished.
+     *
+     * @throws RejectedExecutionException if the indexer queue is full
+     */
+    public boolean reindex() {
+        if (!reindexQueued.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            indexer.execute(() -> {
+                reindexQueued.set(false);
+                try {
+                    rebuild();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Rebuilding the food search index failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reindexQueued.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void rebuild() throws IOException {
+        writer.deleteAll();
+        Integer entries = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<FoodEntryDTO> all = foodEntryRepository.streamAll()) {
+                for (FoodEntryDTO entry : (Iterable<FoodEntryDTO>) all::iterator) {
+                    writer.addDocument(toDocument(entry));
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        writer.commit();
+        searcherManager.maybeRefresh();
+        logger.info("Rebuilt the food search index from {} entries", entries);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfEmpty() {
+        if (writer.getDocStats().numDocs == 0 && foodEntryRepository.count() > 0) {
+            reindex();
+        }
+    }
+
+    // Goes through the indexer so a commit never lands in the middle of a rebuild
+    @Scheduled(fixedDelayString = "${food-search.commit-interval:PT1M}")
+    public void commit() {
+        if (writer.hasUncommittedChanges()) {
+            submit(writer::commit);
+        }
+    }
+
+    /**
+     * Blocks until every update queued so far is applied and visible to searches.
+     */
+    void awaitPendingUpdates() throws InterruptedException, ExecutionException, IOException {
+        indexer.submit(() -> { }).get();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        indexer.shutdown();
+        if (!indexer.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Food search indexer did not finish in time; reindex after startup");
+            indexer.shutdownNow();
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static Document toDocument(FoodEntryDTO entry) {
+        Document document = new Document();
+        document.add(new StringField(ID, entry.getId().toString(), Field.Store.YES));
+        document.add(new StringField(USER_ID, entry.getUserId().toString(), Field.Store.NO));
+        document.add(new TextField(FOOD_NAME, entry.getFoodName(), Field.Store.NO));
+        if (entry.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, entry.getDescription(), Field.Store.NO));
+        }
+        if (entry.getMealType() != null) {
+            document.add(new StringField(MEAL_TYPE, entry.getMealType().name(), Field.Store.NO));
+        }
+        if (entry.getDateTime() != null) {
+            document.add(new LongPoint(DATE_TIME, epochSecond(entry.getDateTime())));
+        }
+        return document;
+    }
+
+    private static Term idTerm(Long entryId) {
+        return new Term(ID, entryId.toString());
+    }
+
+    // Only compared with other values encoded the same way, so the offset does not matter
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void apply() throws IOException;
+    }
+}
@@ -0,0 +1,129 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.FoodSuggestionDTO;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Food-name autocomplete. Each user's own names come first, then names logged by at least
+ * GLOBAL_MIN_USERS different users fill the remaining slots. Only a user's own suggestions
+ * carry calories, price and meal type, since another user's values would reveal what that
+ * user logged. Everything is answered from in-memory prefix indexes:
+ * the global one is seeded from foodentries on startup, and a user's index is built from
+ * their most recent entries on first use and kept in a size-bounded cache. New entries
+ * update both after commit. Deleted entries are not subtracted.
+ */
+@Service
+public class FoodSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodSuggestionService.class);
+    public static final int MAX_LIMIT = 20;
+    static final int USER_NAMES = 500;
+    static final int USER_HISTORY_ENTRIES = 2000;
+    // A name only a user or two have logged is more often a typo, or something personal, than
+    // a food worth suggesting to everyone
+    static final int GLOBAL_MIN_USERS = 3;
+
+    private final FoodEntryRepository foodEntryRepository;
+    private final FoodNameIndex globalIndex;
+    private final Cache<Long, FoodNameIndex> userIndexes;
+
+    public FoodSuggestionService(FoodEntryRepository foodEntryRepository,
+                                 @Value("${food-suggest.global-names:20000}") int globalNames,
+                                 @Value("${food-suggest.cached-users:5000}") int cachedUsers) {
+        this.foodEntryRepository = foodEntryRepository;
+        this.globalIndex = new FoodNameIndex(globalNames, GLOBAL_MIN_USERS);
+        this.userIndexes = Caffeine.newBuilder().maximumSize(cachedUsers).build();
+    }
+
+    public List<FoodSuggestionDTO> suggest(Long userId, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        List<FoodSuggestionDTO> suggestions = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, FoodNameIndex.Usage> match : userIndex(userId).suggest(prefix, limit, 1, Set.of())) {
+            suggestions.add(toSuggestion(match.getValue(), true));
+            seen.add(match.getKey());
+        }
+        if (suggestions.size() < limit) {
+            for (Map.Entry<String, FoodNameIndex.Usage> match
+                    : globalIndex.suggest(prefix, limit - suggestions.size(), GLOBAL_MIN_USERS, seen)) {
+                suggestions.add(toSuggestion(match.getValue(), false));
+            }
+        }
+        return suggestions;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodEntriesCreated(FoodEntriesCreatedEvent event) {
+        for (FoodEntry entry : event.entries()) {
+            record(globalIndex, entry);
+            // A user not in the cache loads their entries, including this one, on first use
+            FoodNameIndex userIndex = userIndexes.getIfPresent(entry.getUser().getId());
+            if (userIndex != null) {
+                record(userIndex, entry);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedGlobalIndex() {
+        int entries = 0;
+        try (Stream<FoodEntryDTO> all = foodEntryRepository.streamAll()) {
+            for (FoodEntryDTO entry : (Iterable<FoodEntryDTO>) all::iterator) {
+                globalIndex.record(entry.getUserId(), entry.getFoodName(), entry.getCalories(), entry.getPrice(),
+                        entry.getMealType(), entry.getDateTime());
+                entries++;
+            }
+        }
+        logger.info("Seeded food suggestions from {} entries, {} names", entries, globalIndex.size());
+    }
+
+    private FoodNameIndex userIndex(Long userId) {
+        return userIndexes.get(userId, id -> {
+            FoodNameIndex index = new FoodNameIndex(USER_NAMES, 1);
+            foodEntryRepository.findRecentEntries(id, PageRequest.of(0, USER_HISTORY_ENTRIES))
+                    .forEach(entry -> index.record(id, entry.getFoodName(), entry.getCalories(), entry.getPrice(),
+                            entry.getMealType(), entry.getDateTime()));
+            return index;
+        });
+    }
+
+    private static void record(FoodNameIndex index, FoodEntry entry) {
+        index.record(entry.getUser().getId(), entry.getFoodName(), entry.getCalories(), entry.getPrice(),
+                entry.getMealType(), entry.getDateTime());
+    }
+
+    private static FoodSuggestionDTO toSuggestion(FoodNameIndex.Usage usage, boolean personal) {
+        if (!personal) {
+            return new FoodSuggestionDTO(usage.displayName(), usage.count(), null, null, null, false);
+        }
+        return new FoodSuggestionDTO(usage.displayName(), usage.count(), usage.calories(), usage.price(),
+                usage.mealType(), true);
+    }
+}
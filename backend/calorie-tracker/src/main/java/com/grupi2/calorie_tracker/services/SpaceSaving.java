@@ -0,0 +1,71 @@
+package com.grupi2.calorie_tracker.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters over a stream of strings, with a fixed number of counters.
+ * An unseen item replaces the smallest counter and inherits its count as error, so every
+ * reported count overestimates by at most its error, and any item more frequent than
+ * total / capacity is guaranteed to be tracked. Not thread-safe; callers guard writes.
+ */
+class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    static SpaceSaving of(int capacity, Collection<Counter> counters) {
+        SpaceSaving summary = new SpaceSaving(capacity);
+        counters.stream()
+                .sorted(Comparator.comparingLong(Counter::count).reversed())
+                .limit(capacity)
+                .forEach(counter -> summary.counters.put(counter.item(), counter));
+        return summary;
+    }
+
+    void add(String item) {
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counters.put(item, new Counter(item, counter.count() + 1, counter.error()));
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Counter(item, 1, 0));
+        } else {
+            // Linear scan: with a few hundred counters this beats maintaining an ordered structure
+            Counter smallest = minimum();
+            counters.remove(smallest.item());
+            counters.put(item, new Counter(item, smallest.count() + 1, smallest.count()));
+        }
+    }
+
+    boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    /**
+     * The largest count an item missing from this summary could have had. Zero until the
+     * summary has had to evict anything.
+     */
+    long missingItemBound() {
+        return isFull() ? minimum().count() : 0;
+    }
+
+    List<Counter> counters() {
+        return new ArrayList<>(counters.values());
+    }
+
+    private Counter minimum() {
+        return counters.values().stream().min(Comparator.comparingLong(Counter::count)).orElseThrow();
+    }
+
+    record Counter(String item, long count, long error) {
+    }
+}
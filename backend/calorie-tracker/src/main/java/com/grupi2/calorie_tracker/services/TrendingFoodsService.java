@@ -0,0 +1,211 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.TrendingFoodDTO;
+import com.grupi2.calorie_tracker.entities.DailyTrendingFoods;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.repositories.DailyTrendingFoodsRepository;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Most logged foods over the last days, from one Space-Saving summary per day kept in
+ * memory. New entries are counted as they are created; the summaries of changed days are
+ * snapshotted to daily_trending_foods on a schedule and loaded back on startup, so a
+ * restart loses at most one snapshot interval. Deleted or renamed entries are not
+ * subtracted. Reading never touches foodentries.
+ */
+@Service
+public class TrendingFoodsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingFoodsService.class);
+    public static final int RETENTION_DAYS = 30;
+    public static final int MAX_LIMIT = 50;
+    // Per day; any food logged more than 1/500 of the day's entries is always tracked
+    static final int COUNTERS_PER_DAY = 500;
+    private static final TypeReference<List<SpaceSaving.Counter>> COUNTER_LIST = new TypeReference<>() {
+    };
+
+    private final DailyTrendingFoodsRepository trendingFoodsRepository;
+    private final FoodEntryRepository foodEntryRepository;
+    private final ObjectMapper objectMapper;
+    // Summaries are only read or changed inside compute, which serializes access per day
+    private final ConcurrentMap<LocalDate, SpaceSaving> days = new ConcurrentHashMap<>();
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    public TrendingFoodsService(DailyTrendingFoodsRepository trendingFoodsRepository,
+                                FoodEntryRepository foodEntryRepository, ObjectMapper objectMapper) {
+        this.trendingFoodsRepository = trendingFoodsRepository;
+        this.foodEntryRepository = foodEntryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodEntriesCreated(FoodEntriesCreatedEvent event) {
+        LocalDate oldest = oldestRetainedDay();
+        for (FoodEntry entry : event.entries()) {
+            LocalDate date = entry.getDateTime().toLocalDate();
+            if (!date.isBefore(oldest)) {
+                record(date, entry.getFoodName());
+            }
+        }
+    }
+
+    private void record(LocalDate date, String foodName) {
+        days.compute(date, (d, summary) -> {
+            SpaceSaving updated = summary != null ? summary : new SpaceSaving(COUNTERS_PER_DAY);
+            updated.add(FoodNames.normalize(foodName));
+            return updated;
+        });
+        // Marked after the update, so a snapshot that clears the mark has already seen it
+        dirtyDays.add(date);
+    }
+
+    /**
+     * The {@code limit} most logged foods over the {@code days} days ending today.
+     */
+    public List<TrendingFoodDTO> getTrendingFoods(int days, int limit) {
+        if (days < 1 || days > RETENTION_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + RETENTION_DAYS + ".");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+
+        // Counts and errors add up across days. A food missing from a full day's summary may
+        // still have been logged up to that day's smallest count, which goes into both.
+        Map<String, long[]> merged = new HashMap<>();
+        long missingBoundAllDays = 0;
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < days; i++) {
+            DaySnapshot day = snapshot(today.minusDays(i));
+            if (day == null) {
+                continue;
+            }
+            for (SpaceSaving.Counter counter : day.counters()) {
+                // count, error, and the missing-item bound of the days this food was tracked on
+                long[] totals = merged.computeIfAbsent(counter.item(), item -> new long[3]);
+                totals[0] += counter.count();
+                totals[1] += counter.error();
+                totals[2] += day.missingItemBound();
+            }
+            missingBoundAllDays += day.missingItemBound();
+        }
+
+        long missingBound = missingBoundAllDays;
+        return merged.entrySet().stream()
+                .map(e -> {
+                    long untracked = missingBound - e.getValue()[2];
+                    return new TrendingFoodDTO(e.getKey(), e.getValue()[0] + untracked, e.getValue()[1] + untracked);
+                })
+                .sorted(Comparator.comparingLong(TrendingFoodDTO::getCount).reversed()
+                        .thenComparing(TrendingFoodDTO::getFoodName))
+                .limit(limit)
+                .toList();
+    }
+
+    private DaySnapshot snapshot(LocalDate date) {
+        DaySnapshot[] result = new DaySnapshot[1];
+        days.computeIfPresent(date, (d, summary) -> {
+            result[0] = new DaySnapshot(summary.counters(), summary.missingItemBound());
+            return summary;
+        });
+        return result[0];
+    }
+
+    @Scheduled(fixedDelayString = "${admin.trending-foods.snapshot-interval:PT1M}")
+    public void snapshotDirtyDays() {
+        LocalDate oldest = oldestRetainedDay();
+        days.keySet().removeIf(day -> day.isBefore(oldest));
+        dirtyDays.removeIf(day -> day.isBefore(oldest));
+
+        for (LocalDate date : List.copyOf(dirtyDays)) {
+            dirtyDays.remove(date);
+            DaySnapshot day = snapshot(date);
+            if (day == null) {
+                continue;
+            }
+            try {
+                trendingFoodsRepository.save(new DailyTrendingFoods(date, objectMapper.writeValueAsString(day.counters())));
+            } catch (JsonProcessingException | RuntimeException e) {
+                dirtyDays.add(date);
+                logger.error("Saving the trending foods snapshot for {} failed", date, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${admin.trending-foods.cleanup-interval:PT6H}")
+    @Transactional
+    public void deleteExpiredSnapshots() {
+        int deleted = trendingFoodsRepository.deleteOlderThan(oldestRetainedDay());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired trending foods snapshots", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        snapshotDirtyDays();
+    }
+
+    /**
+     * Loads the snapshots on startup. Without any (first start), counts the retained days
+     * once from foodentries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        LocalDate oldest = oldestRetainedDay();
+        List<DailyTrendingFoods> snapshots = trendingFoodsRepository.findByDateGreaterThanEqual(oldest);
+        for (DailyTrendingFoods snapshot : snapshots) {
+            try {
+                List<SpaceSaving.Counter> counters = objectMapper.readValue(snapshot.getCounters(), COUNTER_LIST);
+                days.put(snapshot.getDate(), SpaceSaving.of(COUNTERS_PER_DAY, counters));
+            } catch (JsonProcessingException e) {
+                logger.error("Skipping unreadable trending foods snapshot for {}", snapshot.getDate(), e);
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            return;
+        }
+
+        int entries = 0;
+        try (Stream<FoodEntryDTO> recent = foodEntryRepository.streamSince(oldest.atStartOfDay())) {
+            for (FoodEntryDTO entry : (Iterable<FoodEntryDTO>) recent::iterator) {
+                record(entry.getDateTime().toLocalDate(), entry.getFoodName());
+                entries++;
+            }
+        }
+        if (entries > 0) {
+            logger.info("Counted {} recent food entries into trending foods", entries);
+        }
+    }
+
+    private static LocalDate oldestRetainedDay() {
+        return LocalDate.now().minusDays(RETENTION_DAYS - 1);
+    }
+
+    private record DaySnapshot(List<SpaceSaving.Counter> counters, long missingItemBound) {
+    }
+}
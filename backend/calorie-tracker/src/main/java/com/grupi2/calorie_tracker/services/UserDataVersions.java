@@ -0,0 +1,61 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.repositories.UserDataVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Version of each user's food log, for ETag and Last-Modified on the read endpoints. Kept
+ * in user_data_versions and bumped by plain listeners, so the bump commits with the write
+ * that caused it and every instance reads the same value, also after a restart. A version
+ * is an epoch millisecond value that only grows, so it doubles as the modification time.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataVersions {
+
+    private final UserDataVersionRepository versionRepository;
+
+    public long currentVersion(Long userId) {
+        return versionRepository.findVersion(userId).orElse(0L);
+    }
+
+    @EventListener
+    @Transactional
+    public void onFoodEntriesCreated(FoodEntriesCreatedEvent event) {
+        event.entries().stream().map(entry -> entry.getUser().getId()).distinct().forEach(this::bump);
+    }
+
+    @EventListener
+    @Transactional
+    public void onFoodEntryUpdated(FoodEntryUpdatedEvent event) {
+        bump(event.entry().getUser().getId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onFoodEntryDeleted(FoodEntryDeletedEvent event) {
+        bump(event.userId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onDailyTotalsRebuilt(DailyTotalsRebuiltEvent event) {
+        versionRepository.bumpAll(System.currentTimeMillis());
+    }
+
+    private void bump(Long userId) {
+        versionRepository.bump(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * The version as a Last-Modified time, or -1 for a user who never wrote or while the
+     * version's second is still running. HTTP dates have whole seconds, so a write later in
+     * that second would carry the same date and If-Modified-Since would miss it.
+     */
+    public static long lastModified(long version) {
+        return version > 0 && System.currentTimeMillis() >= (version / 1000 + 1) * 1000 ? version : -1;
+    }
+}
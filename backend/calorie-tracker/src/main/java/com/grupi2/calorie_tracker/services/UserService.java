@@ -2,6 +2,7 @@ package com.grupi2.calorie_tracker.services;
 
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.repositories.UserRepository;
+import com.grupi2.calorie_tracker.security.TokenVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,6 +17,8 @@ public class UserService {
     private UserRepository userRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TokenVersionService tokenVersionService;
 
     public User registerUser(User user) {
         if (userRepository.findByEmail(user.getEmail()) != null) {
@@ -46,7 +49,9 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        tokenVersionService.revoke(user);
         userRepository.save(user);
+        tokenVersionService.versionSaved(user);
     }
 
     public User updateUser(User user) {
@@ -0,0 +1,8 @@
+-- Per-user version of the food log behind ETag and Last-Modified. Bumped in the same
+-- transaction as every write, so all instances agree on it and it survives restarts.
+-- A user without a row has never written since and is at version 0.
+CREATE TABLE user_data_versions (
+    user_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (user_id)
+);
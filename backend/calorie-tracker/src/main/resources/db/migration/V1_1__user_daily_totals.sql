@@ -0,0 +1,12 @@
+-- Daily per-user rollup of foodentries (calorie sum, price sum, entry count).
+-- It predates the other migrations: a database baselined at V1 may already have it
+-- from Hibernate, so it is created only when missing. An empty table is filled from
+-- foodentries on startup.
+CREATE TABLE IF NOT EXISTS user_daily_totals (
+    user_id BIGINT NOT NULL,
+    entry_date DATE NOT NULL,
+    total_calories INT NOT NULL,
+    total_price DECIMAL(12, 2) NOT NULL,
+    entry_count INT NOT NULL,
+    PRIMARY KEY (user_id, entry_date)
+);
@@ -0,0 +1,3 @@
+-- Serves every per-user date range lookup with a range scan. calories and price are
+-- included so the SUM queries over a user's range are answered from the index alone.
+CREATE INDEX idx_foodentries_user_date_time ON foodentries (user_id, date_time, calories, price);
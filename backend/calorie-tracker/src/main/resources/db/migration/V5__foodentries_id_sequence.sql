@@ -0,0 +1,9 @@
+-- FoodEntry ids come from a pooled sequence (allocation size 50) so inserts can be
+-- batched. MySQL has no sequences, so Hibernate keeps the next value in this table.
+-- It starts past the existing ids plus one allocation block.
+CREATE TABLE foodentries_seq (
+    next_val BIGINT
+);
+
+INSERT INTO foodentries_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM foodentries;
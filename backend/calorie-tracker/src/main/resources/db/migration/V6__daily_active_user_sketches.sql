@@ -0,0 +1,5 @@
+CREATE TABLE daily_active_user_sketches (
+    entry_date DATE NOT NULL,
+    sketch VARBINARY(8192) NOT NULL,
+    PRIMARY KEY (entry_date)
+);
@@ -0,0 +1,5 @@
+CREATE TABLE daily_trending_foods (
+    entry_date DATE NOT NULL,
+    counters MEDIUMTEXT NOT NULL,
+    PRIMARY KEY (entry_date)
+);
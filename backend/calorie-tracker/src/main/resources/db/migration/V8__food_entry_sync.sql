@@ -0,0 +1,17 @@
+-- Rows written before updated_at was always set would never show up in a delta sync
+UPDATE foodentries SET updated_at = COALESCE(date_time, CURRENT_TIMESTAMP(6)) WHERE updated_at IS NULL;
+
+-- Serves the per-user changes-since scan ordered by (updated_at, id); InnoDB appends the
+-- primary key to every secondary index, so id needs no column of its own here.
+CREATE INDEX idx_foodentries_user_updated_at ON foodentries (user_id, updated_at);
+
+-- One tombstone per deleted entry, so syncing clients learn about deletions too
+CREATE TABLE food_entry_deletions (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    entry_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_food_entry_deletions_user_deleted_at ON food_entry_deletions (user_id, deleted_at);
@@ -1,11 +1,20 @@
 package com.grupi2.calorie_tracker.controllers;
 
+import com.grupi2.calorie_tracker.dto.ActiveUsersPointDTO;
 import com.grupi2.calorie_tracker.dto.AdminStatsResponse;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.HistoryResponse;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.services.ActiveUserSketchService;
 import com.grupi2.calorie_tracker.services.AdminService;
+import com.grupi2.calorie_tracker.services.AdminStatsService;
+import com.grupi2.calorie_tracker.services.ExportFormat;
+import com.grupi2.calorie_tracker.services.FoodEntryExportService;
+import com.grupi2.calorie_tracker.services.FoodSearchService;
+import com.grupi2.calorie_tracker.services.TrendingFoodsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -13,8 +22,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -29,6 +41,21 @@ class AdminControllerTest {
     @Mock
     private AdminService adminService;
 
+    @Mock
+    private AdminStatsService adminStatsService;
+
+    @Mock
+    private ActiveUserSketchService activeUserSketchService;
+
+    @Mock
+    private TrendingFoodsService trendingFoodsService;
+
+    @Mock
+    private FoodEntryExportService foodEntryExportService;
+
+    @Mock
+    private FoodSearchService foodSearchService;
+
     @InjectMocks
     private AdminController adminController;
 
@@ -65,6 +92,50 @@ class AdminControllerTest {
     }
 
 
+    @Test
+    void getAdminStats_PassesBudgetLimit() {
+        BigDecimal budgetLimit = new BigDecimal("500");
+        testStatsResponse = new AdminStatsResponse(1, 1, 1, 1, 0, 500.0, List.of(), LocalDateTime.now());
+        when(adminStatsService.getAdminStats(budgetLimit, true)).thenReturn(testStatsResponse);
+
+        ResponseEntity<AdminStatsResponse> response = adminController.getAdminStats(budgetLimit, true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testStatsResponse, response.getBody());
+        verify(adminStatsService).getAdminStats(budgetLimit, true);
+    }
+
+    @Test
+    void getActiveUsers_ReturnsSeries() {
+        List<ActiveUsersPointDTO> series = List.of(new ActiveUsersPointDTO(LocalDate.of(2024, 1, 15), 42));
+        when(activeUserSketchService.getActiveUsers(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15), 7))
+                .thenReturn(series);
+
+        ResponseEntity<?> response = adminController.getActiveUsers("2024-01-15", "2024-01-15", 7);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(series, response.getBody());
+    }
+
+    @Test
+    void getActiveUsers_InvalidDate_ReturnsBadRequest() {
+        ResponseEntity<?> response = adminController.getActiveUsers("15.01.2024", "2024-01-15", 1);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(activeUserSketchService);
+    }
+
+    @Test
+    void getTrendingFoods_InvalidLimit_ReturnsBadRequest() {
+        when(trendingFoodsService.getTrendingFoods(7, 500))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 50."));
+
+        ResponseEntity<?> response = adminController.getTrendingFoods(7, 500);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Limit must be between 1 and 50.", response.getBody());
+    }
+
     @Test
     void getAllUsers_Success() {
         List<User> users = Arrays.asList(testUser);
@@ -80,15 +151,26 @@ class AdminControllerTest {
 
     @Test
     void getUserEntries_Success() {
-        List<FoodEntry> entries = Arrays.asList(testFoodEntry);
-        when(adminService.getUserEntries(1L)).thenReturn(entries);
+        FoodEntryDTO entry = new FoodEntryDTO(1L, 1L, "Test Food", 500, BigDecimal.TEN, MealType.LUNCH,
+                null, testFoodEntry.getDateTime(), null);
+        HistoryResponse page = new HistoryResponse(Arrays.asList(entry), 500, null);
+        when(adminService.getUserEntries(1L, null, 50)).thenReturn(page);
 
-        ResponseEntity<List<FoodEntry>> response = adminController.getUserEntries(1L);
+        ResponseEntity<?> response = adminController.getUserEntries(1L, null, 50);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
-        verify(adminService).getUserEntries(1L);
+        assertEquals(1, ((HistoryResponse) response.getBody()).getEntries().size());
+        verify(adminService).getUserEntries(1L, null, 50);
+    }
+
+    @Test
+    void getUserEntries_InvalidCursor() {
+        when(adminService.getUserEntries(1L, "bad", 50)).thenThrow(new IllegalArgumentException("Invalid cursor."));
+
+        ResponseEntity<?> response = adminController.getUserEntries(1L, "bad", 50);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     @Test
@@ -137,4 +219,24 @@ class AdminControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(adminService).deleteEntry(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportAllEntries_StreamsNdjson() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = adminController.exportAllEntries("ndjson");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(foodEntryExportService).exportAllEntries(ExportFormat.NDJSON, out);
+    }
+
+    @Test
+    void reindexSearch_AlreadyQueued() {
+        when(foodSearchService.reindex()).thenReturn(false);
+
+        ResponseEntity<String> response = adminController.reindexSearch();
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+}
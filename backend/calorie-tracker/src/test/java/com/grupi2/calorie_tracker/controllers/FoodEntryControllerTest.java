@@ -1,21 +1,45 @@
 package com.grupi2.calorie_tracker.controllers;
 
+import com.grupi2.calorie_tracker.dto.FoodEntryBatchRequest;
+import com.grupi2.calorie_tracker.dto.FoodEntryChangesResponse;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
+import com.grupi2.calorie_tracker.dto.FoodSuggestionDTO;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
 import com.grupi2.calorie_tracker.dto.HistoryResponse;
+import com.grupi2.calorie_tracker.dto.ImportJobStatus;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.security.CustomUserDetails;
+import com.grupi2.calorie_tracker.services.ExportFormat;
+import com.grupi2.calorie_tracker.services.FoodEntryExportService;
+import com.grupi2.calorie_tracker.services.FoodEntryImportService;
 import com.grupi2.calorie_tracker.services.FoodEntryService;
+import com.grupi2.calorie_tracker.services.FoodEntrySyncService;
+import com.grupi2.calorie_tracker.services.FoodSearchService;
+import com.grupi2.calorie_tracker.services.FoodSuggestionService;
+import com.grupi2.calorie_tracker.services.UserDataVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,12 +50,34 @@ class FoodEntryControllerTest {
     @Mock
     private FoodEntryService foodEntryService;
 
+    @Mock
+    private FoodEntryExportService foodEntryExportService;
+
+    @Mock
+    private FoodEntryImportService foodEntryImportService;
+
+    @Mock
+    private FoodSuggestionService foodSuggestionService;
+
+    @Mock
+    private FoodSearchService foodSearchService;
+
+    @Mock
+    private FoodEntrySyncService foodEntrySyncService;
+
+    @Mock
+    private UserDataVersions userDataVersions;
+
     @Mock
     private CustomUserDetails userDetails;
 
     @InjectMocks
     private FoodEntryController foodEntryController;
 
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/food-entries/history");
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    private final ServletWebRequest webRequest = new ServletWebRequest(request, servletResponse);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -54,15 +100,80 @@ class FoodEntryControllerTest {
         verify(foodEntryService).createFoodEntry(request, 1L);
     }
 
+    @Test
+    void createFoodEntries_ReturnsSavedEntries() {
+        FoodEntryRequest entryRequest = new FoodEntryRequest();
+        FoodEntryBatchRequest request = new FoodEntryBatchRequest();
+        request.setEntries(List.of(entryRequest, entryRequest));
+        User user = new User();
+        user.setId(1L);
+        FoodEntry first = new FoodEntry();
+        first.setId(10L);
+        first.setUser(user);
+        FoodEntry second = new FoodEntry();
+        second.setId(11L);
+        second.setUser(user);
+        when(foodEntryService.createFoodEntries(request.getEntries(), 1L)).thenReturn(List.of(first, second));
+
+        ResponseEntity<List<FoodEntryDTO>> response = foodEntryController.createFoodEntries(request, userDetails);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of(10L, 11L), response.getBody().stream().map(FoodEntryDTO::getId).toList());
+        assertEquals(1L, response.getBody().get(0).getUserId());
+    }
+
+    @Test
+    void exportEntries_StreamsUserEntriesAsCsv() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = foodEntryController.exportEntries("CSV", userDetails);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        assertEquals("attachment; filename=\"food-entries.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(foodEntryExportService).exportUserEntries(1L, ExportFormat.CSV, out);
+    }
+
+    @Test
+    void exportEntries_InvalidFormat() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = foodEntryController.exportEntries("xml", userDetails);
+
+        assertEquals(400, response.getStatusCodeValue());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertEquals("Invalid format. Use 'csv' or 'ndjson'.", out.toString(StandardCharsets.UTF_8));
+        verifyNoInteractions(foodEntryExportService);
+    }
+
+    @Test
+    void importEntries_EmptyFile() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "entries.csv", "text/csv", new byte[0]);
+
+        ResponseEntity<?> response = foodEntryController.importEntries(file, userDetails);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(foodEntryImportService);
+    }
+
+    @Test
+    void getImportStatus_UnknownJob() {
+        when(foodEntryImportService.getStatus(1L, "missing")).thenReturn(Optional.empty());
+
+        ResponseEntity<ImportJobStatus> response = foodEntryController.getImportStatus("missing", userDetails);
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
     @Test
     void getDailyEntries_Success() {
 
         LocalDateTime date = LocalDateTime.now();
-        List<FoodEntry> expectedEntries = new ArrayList<>();
+        List<FoodEntryDTO> expectedEntries = new ArrayList<>();
         when(foodEntryService.getUserFoodEntriesForDay(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(expectedEntries);
 
-        ResponseEntity<List<FoodEntry>> response = foodEntryController.getDailyEntries(date, userDetails);
+        ResponseEntity<List<FoodEntryDTO>> response = foodEntryController.getDailyEntries(date, userDetails);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(expectedEntries, response.getBody());
@@ -97,7 +208,7 @@ class FoodEntryControllerTest {
         when(foodEntryService.getDailyCalories(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(2000);
 
-        ResponseEntity<Integer> response = foodEntryController.getDailyCalories(date, userDetails);
+        ResponseEntity<Integer> response = foodEntryController.getDailyCalories(date, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(2000, response.getBody());
@@ -110,7 +221,7 @@ class FoodEntryControllerTest {
         when(foodEntryService.getDailyCalories(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(null);
 
-        ResponseEntity<Integer> response = foodEntryController.getDailyCalories(date, userDetails);
+        ResponseEntity<Integer> response = foodEntryController.getDailyCalories(date, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(0, response.getBody());
@@ -138,7 +249,7 @@ class FoodEntryControllerTest {
                 .thenReturn(expectedSpending);
 
         ResponseEntity<BigDecimal> response =
-                foodEntryController.getMonthlySpending(2024, 1, userDetails);
+                foodEntryController.getMonthlySpending(2024, 1, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(expectedSpending, response.getBody());
@@ -147,12 +258,12 @@ class FoodEntryControllerTest {
     @Test
     void getHistory_DayRange_Success() {
 
-        List<FoodEntry> entries = new ArrayList<>();
+        List<FoodEntryDTO> entries = new ArrayList<>();
         when(foodEntryService.getUserFoodEntriesForDay(anyLong(), any()))
                 .thenReturn(entries);
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "day", 2024, 1, null, 1, null, null, userDetails);
+                "day", 2024, 1, null, 1, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody() instanceof HistoryResponse);
@@ -162,7 +273,7 @@ class FoodEntryControllerTest {
     void getHistory_DayRange_MissingParameters() {
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "day", null, null, null, null, null, null, userDetails);
+                "day", null, null, null, null, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Year, month, and day are required for the 'day' range.", response.getBody());
@@ -171,12 +282,12 @@ class FoodEntryControllerTest {
     @Test
     void getHistory_WeekRange_Success() {
 
-        List<FoodEntry> entries = new ArrayList<>();
+        List<FoodEntryDTO> entries = new ArrayList<>();
         when(foodEntryService.getUserFoodEntriesForWeek(anyLong(), anyInt(), anyInt()))
                 .thenReturn(entries);
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "week", 2024, null, 1, null, null, null, userDetails);
+                "week", 2024, null, 1, null, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody() instanceof HistoryResponse);
@@ -186,7 +297,7 @@ class FoodEntryControllerTest {
     void getHistory_WeekRange_MissingParameters() {
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "week", null, null, null, null, null, null, userDetails);
+                "week", null, null, null, null, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Year and week are required for the 'week' range.", response.getBody());
@@ -195,12 +306,12 @@ class FoodEntryControllerTest {
     @Test
     void getHistory_MonthRange_Success() {
 
-        List<FoodEntry> entries = new ArrayList<>();
+        List<FoodEntryDTO> entries = new ArrayList<>();
         when(foodEntryService.getUserFoodEntriesForMonth(anyLong(), anyInt(), anyInt()))
                 .thenReturn(entries);
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "month", 2024, 1, null, null, null, null, userDetails);
+                "month", 2024, 1, null, null, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody() instanceof HistoryResponse);
@@ -210,7 +321,7 @@ class FoodEntryControllerTest {
     void getHistory_MonthRange_MissingParameters() {
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "month", null, null, null, null, null, null, userDetails);
+                "month", null, null, null, null, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Year and month are required for the 'month' range.", response.getBody());
@@ -219,22 +330,23 @@ class FoodEntryControllerTest {
     @Test
     void getHistory_AllRange_WithDateRange_Success() {
 
-        List<FoodEntry> entries = new ArrayList<>();
-        when(foodEntryService.getUserFoodEntriesForAllTimeWithinRange(anyLong(), any(), any()))
-                .thenReturn(entries);
+        HistoryResponse page = new HistoryResponse(new ArrayList<>(), 0, null);
+        when(foodEntryService.getHistoryPage(anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(page);
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "all", null, null, null, null, "2024-01-01", "2024-12-31", userDetails);
+                "all", null, null, null, null, "2024-01-01", "2024-12-31", null, 50, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody() instanceof HistoryResponse);
+        verify(foodEntryService).getHistoryPage(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null, 50);
     }
 
     @Test
     void getHistory_AllRange_WithInvalidDateFormat() {
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "all", null, null, null, null, "invalid-date", "invalid-date", userDetails);
+                "all", null, null, null, null, "invalid-date", "invalid-date", null, 50, userDetails, webRequest);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Invalid date format. Please use 'YYYY-MM-DD'.", response.getBody());
@@ -243,24 +355,120 @@ class FoodEntryControllerTest {
     @Test
     void getHistory_AllRange_WithoutDateRange_Success() {
 
-        List<FoodEntry> entries = new ArrayList<>();
-        when(foodEntryService.getUserFoodEntriesForAllTime(anyLong()))
-                .thenReturn(entries);
+        HistoryResponse page = new HistoryResponse(new ArrayList<>(), 1200, "next");
+        when(foodEntryService.getHistoryPage(anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(page);
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "all", null, null, null, null, null, null, userDetails);
+                "all", null, null, null, null, null, null, "cursor", 20, userDetails, webRequest);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertTrue(response.getBody() instanceof HistoryResponse);
+        assertEquals(page, response.getBody());
+        verify(foodEntryService).getHistoryPage(1L, null, null, "cursor", 20);
+    }
+
+    @Test
+    void getHistory_AllRange_WithInvalidCursor() {
+
+        when(foodEntryService.getHistoryPage(anyLong(), any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor."));
+
+        ResponseEntity<?> response = foodEntryController.getHistory(
+                "all", null, null, null, null, null, null, "garbage", 50, userDetails, webRequest);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Invalid cursor.", response.getBody());
     }
 
     @Test
     void getHistory_InvalidRange() {
 
         ResponseEntity<?> response = foodEntryController.getHistory(
-                "invalid", null, null, null, null, null, null, userDetails);
+                "invalid", null, null, null, null, null, null, null, 50, userDetails, webRequest);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Invalid range parameter.", response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void suggestFoods_ReturnsSuggestionsForCurrentUser() {
+        List<FoodSuggestionDTO> suggestions = List.of(
+                new FoodSuggestionDTO("Pizza", 4, 800, BigDecimal.TEN, MealType.DINNER, true));
+        when(foodSuggestionService.suggest(1L, "piz", 10)).thenReturn(suggestions);
+
+        ResponseEntity<?> response = foodEntryController.suggestFoods("piz", 10, userDetails);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(suggestions, response.getBody());
+    }
+
+    @Test
+    void searchEntries_PassesFiltersForCurrentUser() {
+        List<FoodEntryDTO> results = List.of(new FoodEntryDTO(5L, 1L, "Chicken salad", 350, BigDecimal.TEN,
+                MealType.LUNCH, null, LocalDateTime.of(2024, 3, 2, 12, 0), null));
+        when(foodSearchService.search(1L, "chicken", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31),
+                MealType.LUNCH, 20)).thenReturn(results);
+
+        ResponseEntity<?> response = foodEntryController.searchEntries("chicken", "2024-03-01", "2024-03-31",
+                "lunch", 20, userDetails);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void searchEntries_InvalidMealType() {
+        ResponseEntity<?> response = foodEntryController.searchEntries("chicken", null, null, "brunch", 20, userDetails);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Invalid meal type.", response.getBody());
+        verifyNoInteractions(foodSearchService);
+    }
+
+    @Test
+    void getChangesSince_ReturnsChangesForCurrentUser() {
+        FoodEntryChangesResponse changes = new FoodEntryChangesResponse(List.of(), List.of(3L), "next", false, false);
+        when(foodEntrySyncService.getChangesSince(1L, "prev", 500)).thenReturn(changes);
+
+        ResponseEntity<?> response = foodEntryController.getChangesSince("prev", 500, userDetails);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(changes, response.getBody());
+    }
+
+    @Test
+    void getChangesSince_InvalidWatermark() {
+        when(foodEntrySyncService.getChangesSince(1L, "bad", 500))
+                .thenThrow(new IllegalArgumentException("Invalid watermark."));
+
+        ResponseEntity<?> response = foodEntryController.getChangesSince("bad", 500, userDetails);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Invalid watermark.", response.getBody());
+    }
+
+    @Test
+    void getHistory_SetsVersionEtag() {
+        when(userDataVersions.currentVersion(1L)).thenReturn(1700000000000L);
+        when(foodEntryService.getUserFoodEntriesForMonth(1L, 2024, 1)).thenReturn(List.of());
+
+        ResponseEntity<?> response = foodEntryController.getHistory(
+                "month", 2024, 1, null, null, null, null, null, 50, userDetails, webRequest);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"1-1700000000000\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNotNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void getDailyCalories_MatchingEtagSkipsQueries() {
+        when(userDataVersions.currentVersion(1L)).thenReturn(1700000000000L);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-1700000000000\"");
+
+        ResponseEntity<Integer> response = foodEntryController.getDailyCalories(LocalDateTime.now(), userDetails, webRequest);
+
+        assertNull(response);
+        assertEquals(304, servletResponse.getStatus());
+        verifyNoInteractions(foodEntryService);
+    }
+}
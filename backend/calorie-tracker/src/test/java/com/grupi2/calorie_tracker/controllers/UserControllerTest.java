@@ -4,14 +4,20 @@ import com.grupi2.calorie_tracker.dto.EmailRequest;
 import com.grupi2.calorie_tracker.dto.PasswordResetRequest;
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.security.JwtUtils;
+import com.grupi2.calorie_tracker.security.LoginRateLimiter;
+import com.grupi2.calorie_tracker.security.PasswordHashingRejectedException;
+import com.grupi2.calorie_tracker.security.TokenVersionService;
 import com.grupi2.calorie_tracker.services.EmailService;
 import com.grupi2.calorie_tracker.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -37,6 +43,10 @@ class UserControllerTest {
     private AuthenticationManager authenticationManager;
     @Mock
     private EmailService emailService;
+    @Mock
+    private TokenVersionService tokenVersionService;
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
 
     @InjectMocks
     private UserController userController;
@@ -61,7 +71,6 @@ class UserControllerTest {
 
     @Test
     void registerUser_Success() {
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userService.registerUser(any(User.class))).thenReturn(testUser);
         when(jwtUtils.generateToken(anyString())).thenReturn("test-token");
 
@@ -74,6 +83,8 @@ class UserControllerTest {
         Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
         assertNotNull(responseBody.get("token"));
         assertNotNull(responseBody.get("user"));
+        // Hashing happens once, in UserService
+        verify(passwordEncoder, never()).encode(anyString());
     }
 
     @Test
@@ -94,7 +105,7 @@ class UserControllerTest {
         when(jwtUtils.generateToken(anyString())).thenReturn("test-token");
         when(userService.findByEmail(anyString())).thenReturn(testUser);
 
-        ResponseEntity<?> response = userController.loginUser(testUser);
+        ResponseEntity<?> response = userController.loginUser(testUser, new MockHttpServletRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -106,12 +117,34 @@ class UserControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenThrow(new RuntimeException("Invalid credentials"));
 
-        ResponseEntity<?> response = userController.loginUser(testUser);
+        ResponseEntity<?> response = userController.loginUser(testUser, new MockHttpServletRequest());
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertEquals("Invalid credentials", response.getBody());
     }
 
+    @Test
+    void loginUser_Throttled() {
+        when(loginRateLimiter.tryAcquire(anyString(), anyString())).thenReturn(12L);
+
+        ResponseEntity<?> response = userController.loginUser(testUser, new MockHttpServletRequest());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void loginUser_HashingPoolSaturated() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new PasswordHashingRejectedException("Password hashing queue is full"));
+
+        ResponseEntity<?> response = userController.loginUser(testUser, new MockHttpServletRequest());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     @Test
     void logout_Success() {
         ResponseEntity<?> response = userController.logoutUser();
@@ -153,7 +186,34 @@ class UserControllerTest {
         ResponseEntity<?> response = userController.updateProfile(testToken, updatedUser);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testUser, ((Map<?, ?>) response.getBody()).get("user"));
+        assertFalse(((Map<?, ?>) response.getBody()).containsKey("token"));
         verify(userService).updateUser(any(User.class));
+        verify(tokenVersionService, never()).revoke(any(User.class));
+        verify(tokenVersionService, never()).versionSaved(any(User.class));
+    }
+
+    @Test
+    void updateProfile_EmailChange_ReturnsFreshToken() {
+        User updatedUser = new User();
+        updatedUser.setEmail("new@example.com");
+        updatedUser.setName("Updated Name");
+
+        when(jwtUtils.getUserEmailFromToken(anyString())).thenReturn("test@example.com");
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+        when(userService.findByEmail("new@example.com")).thenReturn(null);
+        when(userService.updateUser(testUser)).thenReturn(testUser);
+        when(jwtUtils.generateToken("new@example.com")).thenReturn("refreshed-token");
+
+        ResponseEntity<?> response = userController.updateProfile(testToken, updatedUser);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("refreshed-token", ((Map<?, ?>) response.getBody()).get("token"));
+        InOrder order = inOrder(tokenVersionService, userService, jwtUtils);
+        order.verify(tokenVersionService).revoke(testUser);
+        order.verify(userService).updateUser(testUser);
+        order.verify(tokenVersionService).versionSaved(testUser);
+        order.verify(jwtUtils).generateToken("new@example.com");
     }
 
     @Test
@@ -180,11 +240,16 @@ class UserControllerTest {
         when(userService.findByEmail(anyString())).thenReturn(testUser);
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(jwtUtils.generateToken(anyString())).thenReturn("refreshed-token");
 
         ResponseEntity<?> response = userController.resetPassword(testToken, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(userService).updateUser(any(User.class));
+        assertEquals("refreshed-token", ((Map<?, ?>) response.getBody()).get("token"));
+        InOrder order = inOrder(tokenVersionService, userService);
+        order.verify(tokenVersionService).revoke(testUser);
+        order.verify(userService).updateUser(testUser);
+        order.verify(tokenVersionService).versionSaved(testUser);
     }
 
     @Test
@@ -0,0 +1,95 @@
+package com.grupi2.calorie_tracker.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations against an in-memory H2 database in MySQL mode and
+ * checks the query plans of the per-user range queries in FoodEntryRepository, so a
+ * migration or query change that stops them from using their index fails here.
+ */
+class FoodEntryIndexUsageTest {
+
+    private static final String URL = "jdbc:h2:mem:explain;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String INDEX = "idx_foodentries_user_date_time";
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .load()
+                .migrate();
+    }
+
+    // findEntriesBetween and the first page of findHistoryPage
+    @Test
+    void entriesBetween_UsesUserDateTimeIndex() throws SQLException {
+        String plan = explain("SELECT f.id FROM foodentries f " +
+                "WHERE f.user_id = 1 " +
+                "AND f.date_time >= TIMESTAMP '2024-01-01 00:00:00' " +
+                "AND f.date_time < TIMESTAMP '2024-01-08 00:00:00' " +
+                "ORDER BY f.date_time DESC, f.id DESC LIMIT 51");
+
+        assertUsesIndexRange(plan);
+    }
+
+    // findHistoryPageAfter
+    @Test
+    void historyPageAfterCursor_UsesUserDateTimeIndex() throws SQLException {
+        String plan = explain("SELECT f.id FROM foodentries f " +
+                "WHERE f.user_id = 1 " +
+                "AND f.date_time >= TIMESTAMP '1970-01-01 00:00:00' " +
+                "AND (f.date_time < TIMESTAMP '2024-02-01 00:00:00' " +
+                "OR (f.date_time = TIMESTAMP '2024-02-01 00:00:00' AND f.id < 10)) " +
+                "ORDER BY f.date_time DESC, f.id DESC LIMIT 51");
+
+        assertTrue(plan.contains(INDEX), plan);
+    }
+
+    // findChangesAfter
+    @Test
+    void changesSince_UsesUserUpdatedAtIndex() throws SQLException {
+        String plan = explain("SELECT f.id FROM foodentries f " +
+                "WHERE f.user_id = 1 " +
+                "AND (f.updated_at > TIMESTAMP '2024-01-01 00:00:00' " +
+                "OR (f.updated_at = TIMESTAMP '2024-01-01 00:00:00' AND f.id > 10)) " +
+                "AND f.updated_at <= TIMESTAMP '2024-02-01 00:00:00' " +
+                "ORDER BY f.updated_at, f.id LIMIT 501");
+
+        assertTrue(plan.contains("idx_foodentries_user_updated_at"), plan);
+    }
+
+    @Test
+    void yearMonthFunctions_CannotSeekOnDateTime() throws SQLException {
+        String plan = explain("SELECT SUM(f.price) FROM foodentries f " +
+                "WHERE f.user_id = 1 " +
+                "AND YEAR(f.date_time) = 2024 " +
+                "AND MONTH(f.date_time) = 1");
+
+        assertFalse(plan.contains("date_time >="), plan);
+    }
+
+    private static void assertUsesIndexRange(String plan) {
+        assertTrue(plan.contains(INDEX), plan);
+        assertTrue(plan.contains("date_time >="), plan);
+        assertTrue(plan.contains("date_time <"), plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getString(1).toLowerCase();
+        }
+    }
+}
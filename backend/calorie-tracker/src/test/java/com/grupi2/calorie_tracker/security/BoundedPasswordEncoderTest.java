@@ -0,0 +1,85 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedPasswordEncoder passwordEncoder;
+
+    // Encoder that blocks until the test releases it, to hold the single worker busy.
+    private final PasswordEncoder blocking = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordEncoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnPool() {
+        release.countDown();
+        passwordEncoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = passwordEncoder.encode("secret");
+
+        assertEquals("hash:secret", hash);
+        assertTrue(passwordEncoder.matches("secret", hash));
+        assertEquals(2, meterRegistry.get("auth.password.hash.wait").timer().count());
+    }
+
+    @Test
+    void encode_QueueFull_RejectsImmediately() throws Exception {
+        passwordEncoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("queued"));
+        waitForQueueDepth(1);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.encode("rejected"));
+        assertEquals(1, meterRegistry.get("auth.password.hash.rejected").counter().count());
+    }
+
+    @Test
+    void encode_TooSlow_TimesOut() throws Exception {
+        passwordEncoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.encode("slow"));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hash.queue.depth").gauge().value() < depth
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
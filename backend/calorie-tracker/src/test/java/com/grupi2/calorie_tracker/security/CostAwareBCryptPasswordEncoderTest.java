@@ -0,0 +1,26 @@
+package com.grupi2.calorie_tracker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostAwareBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_OnlyWhenCostDiffers() {
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Secret123!")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Secret123!")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("Secret123!")));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void matches_HashesOfAnyCost() {
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.matches("Secret123!", new BCryptPasswordEncoder(4).encode("Secret123!")));
+    }
+}
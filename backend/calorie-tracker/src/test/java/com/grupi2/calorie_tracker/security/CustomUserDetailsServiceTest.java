@@ -0,0 +1,66 @@
+package com.grupi2.calorie_tracker.security;
+
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CustomUserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setPassword("$2a$10$oldhash");
+        user.setRole(User.Role.USER);
+    }
+
+    @Test
+    void loadUserByUsername_Success() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(user);
+
+        UserDetails details = userDetailsService.loadUserByUsername("test@example.com");
+
+        assertEquals("test@example.com", details.getUsername());
+        assertEquals("ROLE_USER", details.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void loadUserByUsername_NotFound() {
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(null);
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("missing@example.com"));
+    }
+
+    @Test
+    void updatePassword_StoresRehashWithoutRevokingTokens() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(user);
+        UserDetails details = userDetailsService.loadUserByUsername("test@example.com");
+
+        UserDetails updated = userDetailsService.updatePassword(details, "{bcrypt}$2a$12$newhash");
+
+        assertEquals("{bcrypt}$2a$12$newhash", updated.getPassword());
+        assertEquals(0, user.getTokenVersion());
+        verify(userRepository).save(user);
+    }
+}
@@ -0,0 +1,49 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LoginRateLimiter(5, 5, 2, 1, meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_EmailBucketExhausted_ReturnsRetryAfter() {
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", "user@example.com"));
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2", "USER@example.com"));
+
+        long retryAfter = rateLimiter.tryAcquire("10.0.0.3", "user@example.com");
+
+        assertTrue(retryAfter > 0 && retryAfter <= 60);
+        assertEquals(1, meterRegistry.get("auth.login.throttled").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void tryAcquire_IpBucketExhausted_ReturnsRetryAfter() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", "user" + i + "@example.com"));
+        }
+
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "other@example.com") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2", "other@example.com"));
+    }
+
+    @Test
+    void evictIdleBuckets_KeepsOnlyPartiallyUsedBuckets() {
+        rateLimiter.tryAcquire("10.0.0.1", "user@example.com");
+
+        rateLimiter.evictIdleBuckets();
+
+        assertEquals(2, rateLimiter.size());
+    }
+}
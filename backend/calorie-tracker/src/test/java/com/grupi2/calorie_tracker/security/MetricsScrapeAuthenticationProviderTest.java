@@ -0,0 +1,42 @@
+package com.grupi2.calorie_tracker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsScrapeAuthenticationProviderTest {
+
+    @Test
+    void authenticate_ConfiguredCredential_GrantsMetricsRole() {
+        MetricsScrapeAuthenticationProvider provider = new MetricsScrapeAuthenticationProvider("prometheus", "s3cret");
+
+        Authentication result = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "s3cret"));
+
+        assertTrue(result.isAuthenticated());
+        assertEquals("prometheus", result.getName());
+        assertEquals(MetricsScrapeAuthenticationProvider.ROLE, result.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+    }
+
+    @Test
+    void authenticate_WrongUsernameOrPassword_Rejected() {
+        MetricsScrapeAuthenticationProvider provider = new MetricsScrapeAuthenticationProvider("prometheus", "s3cret");
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "wrong")));
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "s3cret")));
+    }
+
+    @Test
+    void authenticate_NoPasswordConfigured_RejectsEverything() {
+        MetricsScrapeAuthenticationProvider provider = new MetricsScrapeAuthenticationProvider("prometheus", "");
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "")));
+    }
+}
@@ -0,0 +1,30 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+    }
+
+    @Test
+    void encodeAndMatches_DelegateAndRecordTimings() {
+        String hash = passwordEncoder.encode("Secret123!");
+
+        assertTrue(passwordEncoder.matches("Secret123!", hash));
+        assertFalse(passwordEncoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get(TimedPasswordEncoder.METRIC_NAME).tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get(TimedPasswordEncoder.METRIC_NAME).tag("operation", "matches").timer().count());
+    }
+}
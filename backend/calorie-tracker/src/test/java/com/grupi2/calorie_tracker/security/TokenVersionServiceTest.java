@@ -0,0 +1,96 @@
+package com.grupi2.calorie_tracker.security;
+
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVersionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenVersionService = new TokenVersionService(userRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void isCurrent_LoadsVersionOnceWithinTtl() {
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+
+        verify(userRepository, times(1)).findTokenVersionById(1L);
+    }
+
+    @Test
+    void isCurrent_UnknownUser_ReturnsFalse() {
+        when(userRepository.findTokenVersionById(99L)).thenReturn(Optional.empty());
+
+        assertFalse(tokenVersionService.isCurrent(99L, 0));
+    }
+
+    @Test
+    void versionSaved_RejectsPreviouslyIssuedVersion() {
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+
+        tokenVersionService.revoke(user);
+        tokenVersionService.versionSaved(user);
+
+        assertEquals(1, user.getTokenVersion());
+        assertFalse(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+    }
+
+    @Test
+    void revoke_LeavesCacheAloneUntilSaved() {
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+
+        // The save never happens, so the stored version is still the current one
+        tokenVersionService.revoke(user);
+
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+    }
+
+    @Test
+    void isCurrent_StaleLoadDoesNotOverwriteSavedVersion() {
+        tokenVersionService = new TokenVersionService(userRepository, Duration.ZERO);
+        User user = new User();
+        user.setId(1L);
+        user.setTokenVersion(3);
+        // A reload that read the row before the new version was saved
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(2));
+
+        tokenVersionService.versionSaved(user);
+
+        assertFalse(tokenVersionService.isCurrent(1L, 2));
+    }
+
+    @Test
+    void isCurrent_ReloadsAfterTtl() {
+        tokenVersionService = new TokenVersionService(userRepository, Duration.ZERO);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0)).thenReturn(Optional.of(2));
+
+        assertTrue(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 2));
+    }
+}
@@ -0,0 +1,52 @@
+package com.grupi2.calorie_tracker.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static Claims claimsExpiringIn(long millis) {
+        Claims claims = new DefaultClaims();
+        claims.setSubject("test@example.com");
+        claims.setExpiration(new Date(System.currentTimeMillis() + millis));
+        return claims;
+    }
+
+    @Test
+    void get_ReturnsCachedClaims() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claimsExpiringIn(60_000);
+
+        cache.put("token", claims);
+
+        assertSame(claims, cache.get("token"));
+        assertNull(cache.get("other-token"));
+    }
+
+    @Test
+    void get_ExpiredToken_ReturnsNullAndEvicts() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        cache.put("token", claimsExpiringIn(-1_000));
+
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_WhenFull_StaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(3);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, claimsExpiringIn(60_000));
+        }
+
+        assertTrue(cache.size() <= 3);
+        assertNotNull(cache.get("token-9"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.ActiveUsersPointDTO;
+import com.grupi2.calorie_tracker.dto.UserActiveDayDTO;
+import com.grupi2.calorie_tracker.entities.DailyActiveUserSketch;
+import com.grupi2.calorie_tracker.repositories.DailyActiveUserSketchRepository;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ActiveUserSketchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private DailyActiveUserSketchRepository sketchRepository;
+
+    @Mock
+    private UserDailyTotalRepository userDailyTotalRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ActiveUserSketchService activeUserSketchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void entryAdded(long userId, LocalDate date) {
+        activeUserSketchService.onDailyTotalChanged(new DailyTotalChangedEvent(userId, date, 500, BigDecimal.ONE, 1));
+    }
+
+    private static DailyActiveUserSketch stored(LocalDate date, long... userIds) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long userId : userIds) {
+            sketch.add(userId);
+        }
+        return new DailyActiveUserSketch(date, sketch.toBytes());
+    }
+
+    @Test
+    void flush_MergesPendingUsersIntoStoredSketch() {
+        when(sketchRepository.findById(DAY)).thenReturn(Optional.of(stored(DAY, 1L, 2L)));
+        entryAdded(2L, DAY);
+        entryAdded(3L, DAY);
+
+        activeUserSketchService.flush();
+
+        ArgumentCaptor<DailyActiveUserSketch> saved = ArgumentCaptor.forClass(DailyActiveUserSketch.class);
+        verify(sketchRepository).save(saved.capture());
+        assertEquals(DAY, saved.getValue().getDate());
+        assertEquals(3, HyperLogLog.fromBytes(saved.getValue().getSketch()).estimate());
+
+        activeUserSketchService.flush();
+        verify(sketchRepository, times(1)).save(any());
+    }
+
+    @Test
+    void onDailyTotalChanged_IgnoresEditsAndDeletes() {
+        activeUserSketchService.onDailyTotalChanged(new DailyTotalChangedEvent(1L, DAY, 100, BigDecimal.ZERO, 0));
+        activeUserSketchService.onDailyTotalChanged(new DailyTotalChangedEvent(1L, DAY, -500, BigDecimal.ONE.negate(), -1));
+
+        activeUserSketchService.flush();
+
+        verify(sketchRepository, never()).save(any());
+    }
+
+    @Test
+    void getActiveUsers_MergesWindowAndPendingUsers() {
+        when(sketchRepository.findByDateBetween(DAY.minusDays(6), DAY.plusDays(1))).thenReturn(List.of(
+                stored(DAY.minusDays(5), 1L, 2L),
+                stored(DAY, 2L, 3L)));
+        entryAdded(4L, DAY.plusDays(1));
+
+        List<ActiveUsersPointDTO> weekly = activeUserSketchService.getActiveUsers(DAY, DAY.plusDays(1), 7);
+
+        assertEquals(List.of(new ActiveUsersPointDTO(DAY, 3), new ActiveUsersPointDTO(DAY.plusDays(1), 4)), weekly);
+    }
+
+    @Test
+    void getActiveUsers_RejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> activeUserSketchService.getActiveUsers(DAY, DAY.minusDays(1), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> activeUserSketchService.getActiveUsers(DAY, DAY.plusYears(2), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> activeUserSketchService.getActiveUsers(DAY, DAY, 0));
+    }
+
+    @Test
+    void onDailyTotalsRebuilt_BuildsOneSketchPerDayFromRollup() {
+        when(userDailyTotalRepository.streamActiveDays()).thenReturn(Stream.of(
+                new UserActiveDayDTO(DAY, 1L),
+                new UserActiveDayDTO(DAY, 2L),
+                new UserActiveDayDTO(DAY.plusDays(1), 1L)));
+
+        activeUserSketchService.onDailyTotalsRebuilt(new DailyTotalsRebuiltEvent(3));
+
+        ArgumentCaptor<DailyActiveUserSketch> saved = ArgumentCaptor.forClass(DailyActiveUserSketch.class);
+        verify(sketchRepository).deleteAllSketches();
+        verify(sketchRepository, times(2)).save(saved.capture());
+        assertEquals(2, HyperLogLog.fromBytes(saved.getAllValues().get(0).getSketch()).estimate());
+        assertEquals(1, HyperLogLog.fromBytes(saved.getAllValues().get(1).getSketch()).estimate());
+    }
+
+    @Test
+    void flush_WaitsForRebuildInProgress() throws Exception {
+        CountDownLatch rebuilding = new CountDownLatch(1);
+        CountDownLatch finishRebuild = new CountDownLatch(1);
+        when(userDailyTotalRepository.streamActiveDays()).thenAnswer(invocation -> {
+            rebuilding.countDown();
+            finishRebuild.await();
+            return Stream.of(new UserActiveDayDTO(DAY, 1L));
+        });
+        Thread rebuild = new Thread(() -> activeUserSketchService.onDailyTotalsRebuilt(new DailyTotalsRebuiltEvent(1)));
+        rebuild.start();
+        assertTrue(rebuilding.await(5, TimeUnit.SECONDS));
+
+        entryAdded(2L, DAY);
+        Thread flush = new Thread(activeUserSketchService::flush);
+        flush.start();
+        flush.join(200);
+
+        // The flush must not read the sketch the rebuild is about to replace
+        assertTrue(flush.isAlive());
+        verify(sketchRepository, never()).findById(any());
+
+        finishRebuild.countDown();
+        rebuild.join(5000);
+        flush.join(5000);
+        assertFalse(flush.isAlive());
+        verify(sketchRepository).findById(DAY);
+    }
+}
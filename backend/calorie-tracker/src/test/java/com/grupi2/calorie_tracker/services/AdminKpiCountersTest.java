@@ -0,0 +1,94 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.UserDailyTotal;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class AdminKpiCountersTest {
+
+    @Mock
+    private UserDailyTotalRepository userDailyTotalRepository;
+
+    private AdminKpiCounters counters;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        counters = new AdminKpiCounters(userDailyTotalRepository);
+    }
+
+    private DailyTotalChangedEvent delta(Long userId, LocalDate date, int calories, int entries) {
+        return new DailyTotalChangedEvent(userId, date, calories, BigDecimal.ONE, entries);
+    }
+
+    @Test
+    void load_BuildsWindowsFromRollup() {
+        when(userDailyTotalRepository.sumEntryCount()).thenReturn(500L);
+        when(userDailyTotalRepository.findByDateGreaterThanEqual(today.minusDays(13))).thenReturn(List.of(
+                new UserDailyTotal(1L, today, 1200, BigDecimal.TEN, 2),
+                new UserDailyTotal(2L, today, 600, BigDecimal.TEN, 1),
+                new UserDailyTotal(1L, today.minusDays(6), 900, BigDecimal.TEN, 3),
+                new UserDailyTotal(1L, today.minusDays(7), 400, BigDecimal.TEN, 4)));
+
+        counters.load();
+        AdminKpiCounters.Kpis kpis = counters.getKpis();
+
+        assertEquals(500, kpis.totalEntries());
+        assertEquals(2, kpis.activeToday());
+        assertEquals(6, kpis.lastWeekEntries());
+        assertEquals(4, kpis.weekBeforeEntries());
+        assertEquals(450.0, kpis.averageCaloriesLastWeek());
+    }
+
+    @Test
+    void onDailyTotalChanged_TracksActiveUsersAndTotals() {
+        counters.onDailyTotalChanged(delta(1L, today, 500, 1));
+        counters.onDailyTotalChanged(delta(2L, today, 300, 1));
+        counters.onDailyTotalChanged(delta(2L, today, -300, -1));
+        // An edit changes calories without adding an entry
+        counters.onDailyTotalChanged(delta(1L, today, 100, 0));
+
+        AdminKpiCounters.Kpis kpis = counters.getKpis();
+
+        assertEquals(1, kpis.totalEntries());
+        assertEquals(1, kpis.activeToday());
+        assertEquals(1, kpis.lastWeekEntries());
+        assertEquals(600.0, kpis.averageCaloriesLastWeek());
+    }
+
+    @Test
+    void onDailyTotalChanged_OldDayOnlyCountsTowardsTotal() {
+        counters.onDailyTotalChanged(delta(1L, today.minusYears(1), 500, 3));
+
+        AdminKpiCounters.Kpis kpis = counters.getKpis();
+
+        assertEquals(3, kpis.totalEntries());
+        assertEquals(0, kpis.lastWeekEntries());
+        assertEquals(0, kpis.weekBeforeEntries());
+        assertEquals(0.0, kpis.averageCaloriesLastWeek());
+    }
+
+    @Test
+    void onDailyTotalsRebuilt_ReloadsFromRollup() {
+        counters.onDailyTotalChanged(delta(1L, today, 500, 1));
+        when(userDailyTotalRepository.sumEntryCount()).thenReturn(0L);
+        when(userDailyTotalRepository.findByDateGreaterThanEqual(any())).thenReturn(List.of());
+
+        counters.onDailyTotalsRebuilt(new DailyTotalsRebuiltEvent(0));
+
+        assertEquals(0, counters.getKpis().totalEntries());
+        assertEquals(0, counters.getKpis().activeToday());
+    }
+}
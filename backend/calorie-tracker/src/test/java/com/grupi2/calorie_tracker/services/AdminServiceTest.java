@@ -1,8 +1,6 @@
 package com.grupi2.calorie_tracker.services;
 
-import com.grupi2.calorie_tracker.dto.AdminStatsResponse;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
-import com.grupi2.calorie_tracker.dto.UserOverBudgetDTO;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
@@ -12,10 +10,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +32,12 @@ public class AdminServiceTest {
     @Mock
     private FoodEntryService foodEntryService;
 
+    @Mock
+    private DailyTotalsService dailyTotalsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdminService adminService;
 
@@ -55,57 +60,6 @@ public class AdminServiceTest {
         foodEntry.setDateTime(LocalDateTime.now());
     }
 
-    @Test
-    public void getAdminStats_Success() {
-        // Given
-        when(userRepository.count()).thenReturn(10L);
-        when(foodEntryRepository.count()).thenReturn(100L);
-        when(foodEntryRepository.countDistinctUsersByDateTimeBetween(any(), any())).thenReturn(5);
-        when(foodEntryRepository.countByDateTimeBetween(any(), any())).thenReturn(50);
-        when(foodEntryRepository.getAverageCaloriesLastWeek(any())).thenReturn(300.0);
-        when(foodEntryRepository.calculateMonthlySpending(anyLong(), anyInt(), anyInt())).thenReturn(new BigDecimal("1200"));
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user));
-
-        // When
-        AdminStatsResponse stats = adminService.getAdminStats();
-
-        // Then
-        assertNotNull(stats);
-        assertEquals(10, stats.getTotalUsers());
-        assertEquals(100, stats.getTotalEntries());
-        assertEquals(5, stats.getActiveToday());
-        assertEquals(50, stats.getLastWeekEntries());
-        assertEquals(300.0, stats.getAverageCaloriesAllUsers());
-        assertTrue(stats.getUsersOverBudget().size() > 0);
-    }
-
-    @Test
-    public void getUsersOverBudget_Success() {
-        // Given
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user));
-        when(foodEntryRepository.calculateMonthlySpending(anyLong(), anyInt(), anyInt())).thenReturn(new BigDecimal("1200"));
-
-        // When
-        List<UserOverBudgetDTO> usersOverBudget = adminService.getUsersOverBudget();
-
-        // Then
-        assertEquals(1, usersOverBudget.size());
-        assertEquals(user.getName(), usersOverBudget.get(0).getName());
-    }
-
-    @Test
-    public void getUsersOverBudget_NoUsersOverBudget() {
-        // Given
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user));
-        when(foodEntryRepository.calculateMonthlySpending(anyLong(), anyInt(), anyInt())).thenReturn(new BigDecimal("500"));
-
-        // When
-        List<UserOverBudgetDTO> usersOverBudget = adminService.getUsersOverBudget();
-
-        // Then
-        assertTrue(usersOverBudget.isEmpty());
-    }
-
     @Test
     public void getUserById_UserFound() {
         // Given
@@ -153,6 +107,25 @@ public class AdminServiceTest {
         // Then
         assertNotNull(updatedEntry);
         assertEquals(foodEntry.getFoodName(), updatedEntry.getFoodName());
+        verify(eventPublisher).publishEvent(new FoodEntryUpdatedEvent(foodEntry));
+    }
+
+    @Test
+    public void updateEntry_AppliesDeltaToDailyTotals() {
+        // Given
+        FoodEntry changes = new FoodEntry();
+        changes.setFoodName("Salad");
+        changes.setCalories(200);
+        changes.setPrice(new BigDecimal("8.00"));
+        when(foodEntryRepository.findById(1L)).thenReturn(Optional.of(foodEntry));
+        when(foodEntryRepository.save(any(FoodEntry.class))).thenReturn(foodEntry);
+
+        // When
+        adminService.updateEntry(1L, changes);
+
+        // Then
+        verify(dailyTotalsService).applyDelta(1L, foodEntry.getDateTime().toLocalDate(),
+                -300, new BigDecimal("-4.50"), 0);
     }
 
     @Test
@@ -176,6 +149,20 @@ public class AdminServiceTest {
         verify(foodEntryRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    public void deleteEntry_RemovesEntryFromDailyTotals() {
+        // Given
+        when(foodEntryRepository.findById(1L)).thenReturn(Optional.of(foodEntry));
+
+        // When
+        adminService.deleteEntry(1L);
+
+        // Then
+        verify(dailyTotalsService).recordEntryRemoved(foodEntry);
+        verify(foodEntryRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new FoodEntryDeletedEvent(1L, 1L));
+    }
+
     @Test
     public void deleteEntry_EntryNotFound() {
         // Given
@@ -0,0 +1,140 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.AdminStatsResponse;
+import com.grupi2.calorie_tracker.dto.UserOverBudgetDTO;
+import com.grupi2.calorie_tracker.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AdminStatsServiceTest {
+
+    private static final BigDecimal DEFAULT_LIMIT = new BigDecimal("1000");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DailyTotalsService dailyTotalsService;
+
+    @Mock
+    private AdminKpiCounters adminKpiCounters;
+
+    private AdminStatsService adminStatsService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        adminStatsService = new AdminStatsService(userRepository, dailyTotalsService, adminKpiCounters, DEFAULT_LIMIT, 2);
+
+        when(userRepository.count()).thenReturn(10L);
+        when(adminKpiCounters.getKpis()).thenReturn(new AdminKpiCounters.Kpis(100, 5, 50, 40, 300.0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        adminStatsService.stop();
+    }
+
+    @Test
+    public void getAdminStats_Success() {
+        // Given
+        when(dailyTotalsService.getUsersOverBudget(anyInt(), anyInt(), eq(DEFAULT_LIMIT)))
+                .thenReturn(List.of(new UserOverBudgetDTO(1L, "John Doe", new BigDecimal("1200"))));
+
+        // When
+        AdminStatsResponse stats = adminStatsService.getAdminStats(DEFAULT_LIMIT, false);
+
+        // Then
+        assertNotNull(stats);
+        assertEquals(10, stats.getTotalUsers());
+        assertEquals(100, stats.getTotalEntries());
+        assertEquals(5, stats.getActiveToday());
+        assertEquals(50, stats.getLastWeekEntries());
+        assertEquals(40, stats.getWeekBeforeEntries());
+        assertEquals(300.0, stats.getAverageCaloriesAllUsers());
+        assertEquals(1, stats.getUsersOverBudget().size());
+        assertNotNull(stats.getAsOf());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    public void getAdminStats_ServesSnapshotUntilFreshRequested() {
+        adminStatsService.refreshSnapshot();
+        AdminStatsResponse snapshot = adminStatsService.getAdminStats(DEFAULT_LIMIT, false);
+        assertSame(snapshot, adminStatsService.getAdminStats(DEFAULT_LIMIT, false));
+        verify(userRepository, times(1)).count();
+
+        AdminStatsResponse fresh = adminStatsService.getAdminStats(DEFAULT_LIMIT, true);
+
+        assertNotSame(snapshot, fresh);
+        verify(userRepository, times(2)).count();
+        assertSame(fresh, adminStatsService.getAdminStats(DEFAULT_LIMIT, false));
+    }
+
+    @Test
+    public void getAdminStats_OtherBudgetLimit_ComputesLive() {
+        BigDecimal budgetLimit = new BigDecimal("250");
+        adminStatsService.refreshSnapshot();
+
+        adminStatsService.getAdminStats(budgetLimit, false);
+
+        verify(dailyTotalsService).getUsersOverBudget(anyInt(), anyInt(), eq(budgetLimit));
+        verify(userRepository, times(2)).count();
+    }
+
+    @Test
+    public void refreshSnapshot_FailureKeepsPreviousSnapshot() {
+        adminStatsService.refreshSnapshot();
+        AdminStatsResponse snapshot = adminStatsService.getAdminStats(DEFAULT_LIMIT, false);
+        when(userRepository.count()).thenThrow(new RuntimeException("Database unavailable"));
+
+        adminStatsService.refreshSnapshot();
+
+        assertSame(snapshot, adminStatsService.getAdminStats(DEFAULT_LIMIT, false));
+    }
+
+    @Test
+    public void getAdminStats_QueryFailure_PropagatesCause() {
+        when(userRepository.count()).thenThrow(new RuntimeException("Database unavailable"));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> adminStatsService.getAdminStats(DEFAULT_LIMIT, true));
+
+        assertEquals("Database unavailable", e.getMessage());
+    }
+
+    @Test
+    public void getUsersOverBudget_QueriesCurrentMonth() {
+        // Given
+        LocalDate today = LocalDate.now();
+        BigDecimal budgetLimit = new BigDecimal("250");
+
+        // When
+        adminStatsService.getUsersOverBudget(budgetLimit);
+
+        // Then
+        verify(dailyTotalsService).getUsersOverBudget(today.getYear(), today.getMonthValue(), budgetLimit);
+    }
+
+    @Test
+    public void getUsersOverBudget_NoUsersOverBudget() {
+        // Given
+        when(dailyTotalsService.getUsersOverBudget(anyInt(), anyInt(), any())).thenReturn(List.of());
+
+        // When
+        List<UserOverBudgetDTO> usersOverBudget = adminStatsService.getUsersOverBudget(DEFAULT_LIMIT);
+
+        // Then
+        assertTrue(usersOverBudget.isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package com.grupi2.calorie_tracker.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readRecord_SplitsPlainAndQuotedFields() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,b,c\r\n\"Mac, \"\"cheese\"\"\",,\"line one\nline two\"\nlast,,\n"));
+
+        assertEquals(List.of("a", "b", "c"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("Mac, \"cheese\"", "", "line one\nline two"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("last", "", ""), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_LastLineWithoutNewline() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("x,y\n1,2"));
+
+        reader.readRecord();
+
+        assertEquals(List.of("1", "2"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+}
@@ -0,0 +1,54 @@
+package com.grupi2.calorie_tracker.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyTotalsCacheInvalidatorTest {
+
+    private Cache dailyCalories;
+    private Cache monthlyTotals;
+    private DailyTotalsCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                DailyTotalsService.DAILY_CALORIES_CACHE, DailyTotalsService.MONTHLY_TOTALS_CACHE);
+        dailyCalories = cacheManager.getCache(DailyTotalsService.DAILY_CALORIES_CACHE);
+        monthlyTotals = cacheManager.getCache(DailyTotalsService.MONTHLY_TOTALS_CACHE);
+        invalidator = new DailyTotalsCacheInvalidator(cacheManager);
+
+        dailyCalories.put(new SimpleKey(1L, LocalDate.of(2024, 1, 15)), 1800);
+        dailyCalories.put(new SimpleKey(1L, LocalDate.of(2024, 1, 16)), 900);
+        dailyCalories.put(new SimpleKey(2L, LocalDate.of(2024, 1, 15)), 2100);
+        monthlyTotals.put(new SimpleKey(1L, 2024, 1), List.of());
+        monthlyTotals.put(new SimpleKey(1L, 2024, 2), List.of());
+    }
+
+    @Test
+    void onDailyTotalChanged_EvictsOnlyThatDayAndMonth() {
+        invalidator.onDailyTotalChanged(new DailyTotalChangedEvent(1L, LocalDate.of(2024, 1, 15), 500, BigDecimal.TEN, 1));
+
+        assertNull(dailyCalories.get(new SimpleKey(1L, LocalDate.of(2024, 1, 15))));
+        assertNotNull(dailyCalories.get(new SimpleKey(1L, LocalDate.of(2024, 1, 16))));
+        assertNotNull(dailyCalories.get(new SimpleKey(2L, LocalDate.of(2024, 1, 15))));
+        assertNull(monthlyTotals.get(new SimpleKey(1L, 2024, 1)));
+        assertNotNull(monthlyTotals.get(new SimpleKey(1L, 2024, 2)));
+    }
+
+    @Test
+    void onDailyTotalsRebuilt_ClearsEverything() {
+        invalidator.onDailyTotalsRebuilt(new DailyTotalsRebuiltEvent(3));
+
+        assertNull(dailyCalories.get(new SimpleKey(2L, LocalDate.of(2024, 1, 15))));
+        assertNull(monthlyTotals.get(new SimpleKey(1L, 2024, 2)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.DailyTotalDTO;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.entities.UserDailyTotal;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import com.grupi2.calorie_tracker.repositories.UserDailyTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DailyTotalsServiceTest {
+
+    @Mock
+    private UserDailyTotalRepository userDailyTotalRepository;
+
+    @Mock
+    private FoodEntryRepository foodEntryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DailyTotalsService dailyTotalsService;
+
+    private FoodEntry testFoodEntry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        User testUser = new User();
+        testUser.setId(1L);
+
+        testFoodEntry = new FoodEntry();
+        testFoodEntry.setId(1L);
+        testFoodEntry.setUser(testUser);
+        testFoodEntry.setCalories(500);
+        testFoodEntry.setPrice(new BigDecimal("12.50"));
+        testFoodEntry.setDateTime(LocalDateTime.of(2024, 1, 15, 12, 30));
+    }
+
+    @Test
+    void recordEntryAdded_IncrementsDay() {
+        dailyTotalsService.recordEntryAdded(testFoodEntry);
+
+        verify(userDailyTotalRepository).addToDailyTotal(
+                1L, LocalDate.of(2024, 1, 15), 500, new BigDecimal("12.50"), 1);
+    }
+
+    @Test
+    void recordEntriesAdded_AppliesOneDeltaPerDay() {
+        FoodEntry sameDay = new FoodEntry();
+        sameDay.setUser(testFoodEntry.getUser());
+        sameDay.setCalories(300);
+        sameDay.setPrice(new BigDecimal("4.00"));
+        sameDay.setDateTime(LocalDateTime.of(2024, 1, 15, 19, 0));
+        FoodEntry nextDay = new FoodEntry();
+        nextDay.setUser(testFoodEntry.getUser());
+        nextDay.setCalories(200);
+        nextDay.setPrice(new BigDecimal("3.00"));
+        nextDay.setDateTime(LocalDateTime.of(2024, 1, 16, 8, 0));
+
+        dailyTotalsService.recordEntriesAdded(List.of(testFoodEntry, sameDay, nextDay));
+
+        verify(userDailyTotalRepository).addToDailyTotal(
+                1L, LocalDate.of(2024, 1, 15), 800, new BigDecimal("16.50"), 2);
+        verify(userDailyTotalRepository).addToDailyTotal(
+                1L, LocalDate.of(2024, 1, 16), 200, new BigDecimal("3.00"), 1);
+        verifyNoMoreInteractions(userDailyTotalRepository);
+    }
+
+    @Test
+    void recordEntryRemoved_DecrementsDay() {
+        dailyTotalsService.recordEntryRemoved(testFoodEntry);
+
+        verify(userDailyTotalRepository).addToDailyTotal(
+                1L, LocalDate.of(2024, 1, 15), -500, new BigDecimal("-12.50"), -1);
+    }
+
+    @Test
+    void getDailyCalories_NoRow_ReturnsZero() {
+        when(userDailyTotalRepository.findByUserIdAndDate(1L, LocalDate.of(2024, 1, 15)))
+                .thenReturn(Optional.empty());
+
+        assertEquals(0, dailyTotalsService.getDailyCalories(1L, LocalDate.of(2024, 1, 15)));
+    }
+
+    @Test
+    void getDailyCalories_ReadsRollupRow() {
+        LocalDate day = LocalDate.of(2024, 1, 15);
+        when(userDailyTotalRepository.findByUserIdAndDate(1L, day))
+                .thenReturn(Optional.of(new UserDailyTotal(1L, day, 1800, new BigDecimal("30.00"), 3)));
+
+        assertEquals(1800, dailyTotalsService.getDailyCalories(1L, day));
+    }
+
+    @Test
+    void getMonthTotals_UsesMonthRange() {
+        DailyTotalDTO christmasEve = new DailyTotalDTO(LocalDate.of(2024, 12, 24), 3200, new BigDecimal("45.00"));
+        when(userDailyTotalRepository.findDailyTotals(1L, LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 1)))
+                .thenReturn(List.of(christmasEve));
+
+        assertEquals(List.of(christmasEve), dailyTotalsService.getMonthTotals(1L, 2024, 12));
+    }
+
+    @Test
+    void applyDelta_PublishesChangedDay() {
+        LocalDate day = LocalDate.of(2024, 1, 15);
+
+        dailyTotalsService.applyDelta(1L, day, 100, BigDecimal.ONE, 1);
+
+        verify(eventPublisher).publishEvent(new DailyTotalChangedEvent(1L, day, 100, BigDecimal.ONE, 1));
+    }
+
+    @Test
+    void rebuild_ReplacesAllRows() {
+        when(userDailyTotalRepository.insertTotalsFromEntries()).thenReturn(42);
+
+        int rows = dailyTotalsService.rebuild();
+
+        assertEquals(42, rows);
+        verify(userDailyTotalRepository).deleteAllTotals();
+        verify(userDailyTotalRepository).insertTotalsFromEntries();
+    }
+
+    @Test
+    void backfillIfEmpty_SkipsWhenRollupPopulated() {
+        when(userDailyTotalRepository.count()).thenReturn(10L);
+
+        dailyTotalsService.backfillIfEmpty();
+
+        verify(userDailyTotalRepository, never()).insertTotalsFromEntries();
+    }
+
+    @Test
+    void backfillIfEmpty_RebuildsWhenRollupEmpty() {
+        when(userDailyTotalRepository.count()).thenReturn(0L);
+        when(foodEntryRepository.count()).thenReturn(5L);
+
+        dailyTotalsService.backfillIfEmpty();
+
+        verify(userDailyTotalRepository).deleteAllTotals();
+        verify(userDailyTotalRepository).insertTotalsFromEntries();
+    }
+}
@@ -0,0 +1,159 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.EmailOutboxMessage;
+import com.grupi2.calorie_tracker.repositories.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    private EmailService emailService;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(outboxRepository.save(any(EmailOutboxMessage.class))).thenAnswer(invocation -> {
+            EmailOutboxMessage message = invocation.getArgument(0);
+            message.setId(ids.incrementAndGet());
+            return message;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (emailService != null) {
+            emailService.stop();
+        }
+    }
+
+    private EmailService createService(JavaMailSender mailSender, int maxAttempts) {
+        return new EmailService(mailSender, outboxRepository, 1, 10, maxAttempts, Duration.ofSeconds(30),
+                Duration.ofDays(7));
+    }
+
+    private EmailOutboxMessage pendingMessage(String to) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(ids.incrementAndGet());
+        message.setRecipient(to);
+        message.setSubject("Subject");
+        message.setBody("Body");
+        message.setNextAttemptAt(LocalDateTime.now());
+        return message;
+    }
+
+    @Test
+    void sendEmail_DeliversThroughSmtpAndMarksSent() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        emailService = createService(mailSender, 5);
+        emailService.start();
+
+        emailService.sendEmail("user@example.com", "Confirmation code", "Your code is 123456");
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertEquals("Confirmation code", received.getSubject());
+        assertEquals("Your code is 123456", GreenMailUtil.getBody(received).trim());
+        verify(outboxRepository, timeout(5000)).saveAll(argThat(batch ->
+                ((List<EmailOutboxMessage>) batch).get(0).getStatus() == EmailOutboxMessage.Status.SENT));
+    }
+
+    @Test
+    void deliver_SendsBatchInOneCall() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        emailService = createService(mailSender, 5);
+        List<EmailOutboxMessage> batch = List.of(pendingMessage("a@example.com"), pendingMessage("b@example.com"));
+
+        emailService.deliver(batch);
+
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        assertTrue(batch.stream().allMatch(m -> m.getStatus() == EmailOutboxMessage.Status.SENT));
+        assertTrue(batch.stream().allMatch(m -> m.getBody() == null));
+    }
+
+    @Test
+    void deliver_Failure_SchedulesRetryWithBackoff() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage[].class));
+        emailService = createService(mailSender, 5);
+        EmailOutboxMessage message = pendingMessage("a@example.com");
+
+        emailService.deliver(List.of(message));
+        LocalDateTime firstRetry = message.getNextAttemptAt();
+        emailService.deliver(List.of(message));
+
+        assertEquals(EmailOutboxMessage.Status.PENDING, message.getStatus());
+        assertEquals(2, message.getAttempts());
+        assertEquals("Connection refused", message.getLastError());
+        assertTrue(message.getNextAttemptAt().isAfter(firstRetry.plusSeconds(20)));
+    }
+
+    @Test
+    void deliver_Failure_GivesUpAfterMaxAttempts() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("Mailbox unavailable")).when(mailSender).send(any(SimpleMailMessage[].class));
+        emailService = createService(mailSender, 1);
+        EmailOutboxMessage message = pendingMessage("a@example.com");
+
+        emailService.deliver(List.of(message));
+
+        assertEquals(EmailOutboxMessage.Status.FAILED, message.getStatus());
+        verify(outboxRepository).saveAll(List.of(message));
+    }
+
+    @Test
+    void deleteFinishedMessages_DeletesSentAndFailedPastRetention() {
+        emailService = createService(mock(JavaMailSender.class), 5);
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+
+        emailService.deleteFinishedMessages();
+
+        verify(outboxRepository).deleteByStatusCreatedBefore(
+                eq(List.of(EmailOutboxMessage.Status.SENT, EmailOutboxMessage.Status.FAILED)),
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(LocalDateTime.now().minusDays(6))));
+    }
+
+    @Test
+    void enqueueDueMessages_RequeuesPendingRows() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        EmailOutboxMessage leftover = pendingMessage("a@example.com");
+        when(outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                eq(EmailOutboxMessage.Status.PENDING), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(leftover));
+        emailService = createService(mailSender, 5);
+        emailService.start();
+
+        emailService.enqueueDueMessages();
+
+        verify(mailSender, timeout(5000)).send(any(SimpleMailMessage[].class));
+    }
+}
@@ -0,0 +1,76 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FoodEntryExportServiceTest {
+
+    @Mock
+    private FoodEntryRepository foodEntryRepository;
+
+    private FoodEntryExportService exportService;
+    private FoodEntryDTO plainEntry;
+    private FoodEntryDTO quotedEntry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new FoodEntryExportService(foodEntryRepository, objectMapper);
+
+        plainEntry = new FoodEntryDTO(1L, 7L, "Apple", 95, new BigDecimal("0.50"), MealType.SNACK,
+                null, LocalDateTime.of(2024, 1, 15, 10, 0), null);
+        quotedEntry = new FoodEntryDTO(2L, 7L, "Mac, \"cheese\"", 600, new BigDecimal("8.00"), MealType.DINNER,
+                "line one\nline two", LocalDateTime.of(2024, 1, 15, 19, 30), null);
+    }
+
+    @Test
+    void exportUserEntries_Csv_WritesHeaderAndQuotedRows() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(foodEntryRepository.streamByUserId(7L))
+                .thenReturn(Stream.of(plainEntry, quotedEntry).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUserEntries(7L, ExportFormat.CSV, out);
+
+        assertEquals(FoodEntryExportService.CSV_HEADER + "\n" +
+                "1,7,Apple,95,0.50,SNACK,,2024-01-15T10:00,\n" +
+                "2,7,\"Mac, \"\"cheese\"\"\",600,8.00,DINNER,\"line one\nline two\",2024-01-15T19:30,\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportAllEntries_Ndjson_WritesOneObjectPerLine() throws Exception {
+        when(foodEntryRepository.streamAll()).thenReturn(Stream.of(plainEntry, quotedEntry));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportAllEntries(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"userId\":7,\"foodName\":\"Apple\""));
+        assertTrue(lines[1].contains("\"description\":\"line one\\nline two\""));
+        assertTrue(lines[1].contains("\"dateTime\":\"2024-01-15T19:30:00\""));
+    }
+}
@@ -0,0 +1,116 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
+import com.grupi2.calorie_tracker.dto.ImportJobStatus;
+import com.grupi2.calorie_tracker.dto.ImportRowError;
+import com.grupi2.calorie_tracker.entities.MealType;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FoodEntryImportServiceTest {
+
+    private static final String HEADER = "food_name,calories,price,meal_type,description,date_time\n";
+
+    @Mock
+    private FoodEntryService foodEntryService;
+
+    @Captor
+    private ArgumentCaptor<List<FoodEntryRequest>> saved;
+
+    private FoodEntryImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new FoodEntryImportService(foodEntryService,
+                Validation.buildDefaultValidatorFactory().getValidator(), 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.stop();
+    }
+
+    private ImportJobStatus importCsv(String csv) throws Exception {
+        FoodEntryImportService.ImportJob job = new FoodEntryImportService.ImportJob("job", 1L);
+        importService.importRows(job, new StringReader(csv));
+        return job.toStatus();
+    }
+
+    @Test
+    void importRows_SavesValidRowsAndReportsInvalidOnes() throws Exception {
+        ImportJobStatus status = importCsv(HEADER +
+                "Oatmeal,350,2.50,breakfast,,2024-01-15T08:00\n" +
+                "Soup,abc,4.00,LUNCH,,2024-01-15T12:00\n" +
+                ",-5,4.00,LUNCH,,2024-01-15T12:30\n" +
+                "\"Steak, grilled\",800,15.00,DINNER,\"with \"\"sauce\"\"\",2024-01-15T19:00\n");
+
+        verify(foodEntryService).createFoodEntries(saved.capture(), eq(1L));
+        assertEquals(List.of("Oatmeal", "Steak, grilled"),
+                saved.getValue().stream().map(FoodEntryRequest::getFoodName).toList());
+        FoodEntryRequest steak = saved.getValue().get(1);
+        assertEquals(MealType.DINNER, steak.getMealType());
+        assertEquals(new BigDecimal("15.00"), steak.getPrice());
+        assertEquals("with \"sauce\"", steak.getDescription());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 19, 0), steak.getDateTime());
+
+        assertEquals(ImportJobStatus.State.COMPLETED, status.getState());
+        assertEquals(4, status.getRowsProcessed());
+        assertEquals(2, status.getImported());
+        assertEquals(2, status.getFailed());
+        assertEquals(List.of(
+                new ImportRowError(3, "Invalid calories 'abc'"),
+                new ImportRowError(4, "Calories must be positive; Food name is required")), status.getErrors());
+    }
+
+    @Test
+    void importRows_SavesInFixedSizeChunks() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        int rows = FoodEntryImportService.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            csv.append("Apple,95,0.50,SNACK,,2024-01-15T10:00\n");
+        }
+
+        ImportJobStatus status = importCsv(csv.toString());
+
+        verify(foodEntryService, times(3)).createFoodEntries(saved.capture(), eq(1L));
+        assertEquals(rows, status.getImported());
+        assertEquals(0, status.getFailed());
+    }
+
+    @Test
+    void importRows_FailedChunk_ReportsRowsAndContinues() throws Exception {
+        doThrow(new RuntimeException("User not found")).when(foodEntryService).createFoodEntries(anyList(), eq(1L));
+
+        ImportJobStatus status = importCsv(HEADER + "Apple,95,0.50,SNACK,,2024-01-15T10:00\n");
+
+        assertEquals(ImportJobStatus.State.COMPLETED, status.getState());
+        assertEquals(0, status.getImported());
+        assertEquals(List.of(new ImportRowError(2, "Could not be saved")), status.getErrors());
+    }
+
+    @Test
+    void importRows_MissingColumns_FailsJob() throws Exception {
+        ImportJobStatus status = importCsv("food_name,calories\nApple,95\n");
+
+        assertEquals(ImportJobStatus.State.FAILED, status.getState());
+        assertEquals("Missing column(s): price, meal_type, date_time", status.getMessage());
+        verifyNoInteractions(foodEntryService);
+    }
+}
@@ -1,6 +1,10 @@
 package com.grupi2.calorie_tracker.services;
 
+import com.grupi2.calorie_tracker.dto.DailyTotalDTO;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
 import com.grupi2.calorie_tracker.dto.FoodEntryRequest;
+import com.grupi2.calorie_tracker.dto.HistoryCursor;
+import com.grupi2.calorie_tracker.dto.HistoryResponse;
 import com.grupi2.calorie_tracker.entities.FoodEntry;
 import com.grupi2.calorie_tracker.entities.MealType;
 import com.grupi2.calorie_tracker.entities.User;
@@ -10,18 +14,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 class FoodEntryServiceTest {
@@ -32,11 +39,18 @@ class FoodEntryServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private DailyTotalsService dailyTotalsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private FoodEntryService foodEntryService;
 
     private User testUser;
     private FoodEntry testFoodEntry;
+    private FoodEntryDTO testEntryView;
     private FoodEntryRequest testRequest;
 
     @BeforeEach
@@ -55,6 +69,9 @@ class FoodEntryServiceTest {
         testFoodEntry.setDateTime(LocalDateTime.now());
         testFoodEntry.setMealType(MealType.LUNCH);
 
+        testEntryView = new FoodEntryDTO(1L, 1L, "Test Food", 500, BigDecimal.TEN, MealType.LUNCH,
+                null, testFoodEntry.getDateTime(), null);
+
         testRequest = new FoodEntryRequest();
         testRequest.setFoodName("Test Food");
         testRequest.setCalories(500);
@@ -74,6 +91,38 @@ class FoodEntryServiceTest {
         assertNotNull(result);
         assertEquals(testFoodEntry.getFoodName(), result.getFoodName());
         verify(foodEntryRepository).save(any(FoodEntry.class));
+        verify(dailyTotalsService).recordEntryAdded(testFoodEntry);
+        verify(eventPublisher).publishEvent(new FoodEntriesCreatedEvent(List.of(testFoodEntry)));
+    }
+
+    @Test
+    void createFoodEntry_UsesServerTimeInsteadOfClientTime() {
+        testRequest.setDateTime(LocalDateTime.of(2020, 1, 1, 3, 0));
+        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(foodEntryRepository.save(any(FoodEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        LocalDateTime before = LocalDateTime.now();
+
+        FoodEntry result = foodEntryService.createFoodEntry(testRequest, 1L);
+
+        assertFalse(result.getDateTime().isBefore(before));
+        assertFalse(result.getDateTime().isAfter(LocalDateTime.now()));
+        verify(dailyTotalsService).recordEntryAdded(result);
+    }
+
+    @Test
+    void createFoodEntries_LooksUpUserOnceAndSavesAll() {
+        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(foodEntryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<FoodEntry> result = foodEntryService.createFoodEntries(List.of(testRequest, testRequest), 1L);
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(entry -> entry.getUser() == testUser));
+        assertEquals(testRequest.getDateTime(), result.get(0).getDateTime());
+        verify(userService, times(1)).getUserById(1L);
+        verify(foodEntryRepository, never()).save(any(FoodEntry.class));
+        verify(dailyTotalsService).recordEntriesAdded(result);
+        verify(eventPublisher).publishEvent(new FoodEntriesCreatedEvent(result));
     }
 
     @Test
@@ -85,6 +134,7 @@ class FoodEntryServiceTest {
 
         assertTrue(result);
         verify(foodEntryRepository).delete(testFoodEntry);
+        verify(dailyTotalsService).recordEntryRemoved(testFoodEntry);
     }
 
     @Test
@@ -96,6 +146,7 @@ class FoodEntryServiceTest {
 
         assertFalse(result);
         verify(foodEntryRepository, never()).delete(any());
+        verify(dailyTotalsService, never()).recordEntryRemoved(any());
     }
 
     @Test
@@ -104,58 +155,61 @@ class FoodEntryServiceTest {
         LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        when(foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
-                1L, startOfDay, endOfDay))
-                .thenReturn(Arrays.asList(testFoodEntry));
+        when(foodEntryRepository.findEntriesBetween(1L, startOfDay, endOfDay))
+                .thenReturn(Arrays.asList(testEntryView));
 
-        List<FoodEntry> results = foodEntryService.getUserFoodEntriesForDay(1L, date);
+        List<FoodEntryDTO> results = foodEntryService.getUserFoodEntriesForDay(1L, date);
 
         assertFalse(results.isEmpty());
         assertEquals(1, results.size());
-        verify(foodEntryRepository).findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
-                1L, startOfDay, endOfDay);
+        assertEquals(1L, results.get(0).getUserId());
+        verify(foodEntryRepository).findEntriesBetween(1L, startOfDay, endOfDay);
     }
 
     @Test
     void getDailyCalories() {
         LocalDateTime date = LocalDateTime.now();
-        LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        when(foodEntryRepository.getTotalCaloriesForUserBetweenDates(1L, startOfDay, endOfDay))
+        when(dailyTotalsService.getDailyCalories(1L, date.toLocalDate()))
                 .thenReturn(500);
 
         Integer calories = foodEntryService.getDailyCalories(1L, date);
 
         assertEquals(500, calories);
+        verifyNoInteractions(foodEntryRepository);
     }
 
     @Test
     void getHighCalorieDays() {
-        Date testDate = new Date();
-        when(foodEntryRepository.findHighCalorieDays(1L, 2024, 1, 2000))
-                .thenReturn(Arrays.asList(testDate));
+        LocalDate testDate = LocalDate.of(2024, 1, 15);
+        when(dailyTotalsService.getMonthTotals(1L, 2024, 1))
+                .thenReturn(Arrays.asList(
+                        new DailyTotalDTO(LocalDate.of(2024, 1, 14), 2000, BigDecimal.TEN),
+                        new DailyTotalDTO(testDate, 2600, BigDecimal.TEN)));
 
         List<LocalDateTime> results = foodEntryService.getHighCalorieDays(1L, 2024, 1, 2000);
 
         assertFalse(results.isEmpty());
         assertEquals(1, results.size());
+        assertEquals(testDate.atStartOfDay(), results.get(0));
     }
 
     @Test
     void getMonthlySpending_WithResults() {
-        when(foodEntryRepository.calculateMonthlySpending(1L, 2024, 1))
-                .thenReturn(BigDecimal.valueOf(100.00));
+        when(dailyTotalsService.getMonthTotals(1L, 2024, 1))
+                .thenReturn(Arrays.asList(
+                        new DailyTotalDTO(LocalDate.of(2024, 1, 2), 1500, new BigDecimal("60.00")),
+                        new DailyTotalDTO(LocalDate.of(2024, 1, 3), 1800, new BigDecimal("40.00"))));
 
         BigDecimal result = foodEntryService.getMonthlySpending(1L, 2024, 1);
 
-        assertEquals(BigDecimal.valueOf(100.00), result);
+        assertEquals(new BigDecimal("100.00"), result);
     }
 
     @Test
     void getMonthlySpending_NoResults() {
-        when(foodEntryRepository.calculateMonthlySpending(1L, 2024, 1))
-                .thenReturn(null);
+        when(dailyTotalsService.getMonthTotals(1L, 2024, 1))
+                .thenReturn(List.of());
 
         BigDecimal result = foodEntryService.getMonthlySpending(1L, 2024, 1);
 
@@ -164,50 +218,81 @@ class FoodEntryServiceTest {
 
     @Test
     void getUserFoodEntriesForWeek() {
-        when(foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
+        when(foodEntryRepository.findEntriesBetween(
                 eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(testFoodEntry));
+                .thenReturn(Arrays.asList(testEntryView));
 
-        List<FoodEntry> results = foodEntryService.getUserFoodEntriesForWeek(1L, 2024, 1);
+        List<FoodEntryDTO> results = foodEntryService.getUserFoodEntriesForWeek(1L, 2024, 1);
 
         assertFalse(results.isEmpty());
         assertEquals(1, results.size());
+        verify(foodEntryRepository).findEntriesBetween(1L,
+                LocalDate.of(2024, 1, 1).atStartOfDay(), LocalDate.of(2024, 1, 8).atStartOfDay());
     }
 
     @Test
     void getUserFoodEntriesForMonth() {
-        when(foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
+        when(foodEntryRepository.findEntriesBetween(
                 eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(testFoodEntry));
+                .thenReturn(Arrays.asList(testEntryView));
 
-        List<FoodEntry> results = foodEntryService.getUserFoodEntriesForMonth(1L, 2024, 1);
+        List<FoodEntryDTO> results = foodEntryService.getUserFoodEntriesForMonth(1L, 2024, 1);
 
         assertFalse(results.isEmpty());
         assertEquals(1, results.size());
+        verify(foodEntryRepository).findEntriesBetween(1L,
+                LocalDate.of(2024, 1, 1).atStartOfDay(), LocalDate.of(2024, 2, 1).atStartOfDay());
     }
 
     @Test
-    void getUserFoodEntriesForAllTime() {
-        when(foodEntryRepository.findByUserIdOrderByDateTimeDesc(1L))
-                .thenReturn(Arrays.asList(testFoodEntry));
-
-        List<FoodEntry> results = foodEntryService.getUserFoodEntriesForAllTime(1L);
+    void getHistoryPage_FirstPage_ReturnsCursorWhenMoreRows() {
+        FoodEntryDTO older = new FoodEntryDTO();
+        older.setId(2L);
+        older.setCalories(300);
+        older.setDateTime(testEntryView.getDateTime().minusHours(1));
+        when(foodEntryRepository.findHistoryPage(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(testEntryView, older)));
+        when(dailyTotalsService.getTotalCalories(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(800);
+
+        HistoryResponse page = foodEntryService.getHistoryPage(1L, null, null, null, 1);
+
+        assertEquals(1, page.getEntries().size());
+        assertEquals(800, page.getTotalCalories());
+        assertEquals(HistoryCursor.of(testEntryView).encode(), page.getNextCursor());
+        verify(foodEntryRepository).findHistoryPage(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(PageRequest.of(0, 2)));
+    }
 
-        assertFalse(results.isEmpty());
-        assertEquals(1, results.size());
+    @Test
+    void getHistoryPage_LastPage_HasNoCursor() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 31);
+        when(foodEntryRepository.findHistoryPage(1L, start.atStartOfDay(), end.plusDays(1).atStartOfDay(),
+                PageRequest.of(0, 51)))
+                .thenReturn(new ArrayList<>(Arrays.asList(testEntryView)));
+
+        HistoryResponse page = foodEntryService.getHistoryPage(1L, start, end, null, 50);
+
+        assertEquals(1, page.getEntries().size());
+        assertNull(page.getNextCursor());
+        verify(dailyTotalsService).getTotalCalories(1L, start, end.plusDays(1));
     }
 
     @Test
-    void getUserFoodEntriesForAllTimeWithinRange() {
-        LocalDateTime start = LocalDateTime.now().minusDays(7);
-        LocalDateTime end = LocalDateTime.now();
+    void getHistoryPage_WithCursor_ContinuesAfterPosition() {
+        LocalDateTime position = LocalDateTime.of(2024, 1, 10, 12, 0);
+        String cursor = new HistoryCursor(position, 7L).encode();
 
-        when(foodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(1L, start, end))
-                .thenReturn(Arrays.asList(testFoodEntry));
+        foodEntryService.getHistoryPage(1L, null, null, cursor, 500);
 
-        List<FoodEntry> results = foodEntryService.getUserFoodEntriesForAllTimeWithinRange(1L, start, end);
+        verify(foodEntryRepository).findHistoryPageAfter(eq(1L), any(LocalDateTime.class), eq(position), eq(7L),
+                eq(PageRequest.of(0, FoodEntryService.MAX_PAGE_SIZE + 1)));
+    }
 
-        assertFalse(results.isEmpty());
-        assertEquals(1, results.size());
+    @Test
+    void getHistoryPage_InvalidCursor_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> foodEntryService.getHistoryPage(1L, null, null, "not-a-cursor", 50));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryChangesResponse;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.SyncWatermark;
+import com.grupi2.calorie_tracker.entities.FoodEntryDeletion;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.repositories.FoodEntryDeletionRepository;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FoodEntrySyncServiceTest {
+
+    @Mock
+    private FoodEntryRepository foodEntryRepository;
+
+    @Mock
+    private FoodEntryDeletionRepository deletionRepository;
+
+    private FoodEntrySyncService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new FoodEntrySyncService(foodEntryRepository, deletionRepository,
+                Duration.ofSeconds(5), Duration.ofDays(90));
+    }
+
+    private FoodEntryDTO entry(Long id, LocalDateTime updatedAt) {
+        return new FoodEntryDTO(id, 1L, "Apple", 80, BigDecimal.ONE, MealType.SNACK, null, updatedAt, updatedAt);
+    }
+
+    @Test
+    void getChangesSince_FirstSyncReturnsEverythingWithoutTombstones() {
+        LocalDateTime earlier = LocalDateTime.now().minusDays(3);
+        List<FoodEntryDTO> entries = List.of(entry(1L, earlier), entry(2L, earlier));
+        when(foodEntryRepository.findChangesAfter(eq(1L), eq(LocalDateTime.of(1970, 1, 1, 0, 0)), eq(0L),
+                any(), eq(PageRequest.of(0, 11)))).thenReturn(entries);
+
+        FoodEntryChangesResponse response = service.getChangesSince(1L, null, 10);
+
+        assertEquals(entries, response.getChanged());
+        assertEquals(List.of(), response.getDeleted());
+        assertFalse(response.isHasMore());
+        assertFalse(response.isReset());
+        SyncWatermark watermark = SyncWatermark.decode(response.getWatermark());
+        assertEquals(Long.MAX_VALUE, watermark.getId());
+        assertTrue(watermark.getUpdatedAt().isBefore(LocalDateTime.now().minusSeconds(4)));
+        verifyNoInteractions(deletionRepository);
+    }
+
+    @Test
+    void getChangesSince_FullPageEndsWatermarkAtLastEntry() {
+        LocalDateTime since = LocalDateTime.now().minusHours(2);
+        LocalDateTime changedAt = since.plusMinutes(10);
+        when(foodEntryRepository.findChangesAfter(eq(1L), eq(since), eq(7L), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(entry(8L, changedAt), entry(9L, changedAt), entry(10L, changedAt)));
+        when(deletionRepository.findDeletedEntryIds(1L, since, changedAt)).thenReturn(List.of(4L));
+
+        FoodEntryChangesResponse response = service.getChangesSince(1L, new SyncWatermark(since, 7L).encode(), 2);
+
+        assertEquals(List.of(8L, 9L), response.getChanged().stream().map(FoodEntryDTO::getId).toList());
+        assertEquals(List.of(4L), response.getDeleted());
+        assertTrue(response.isHasMore());
+        assertEquals(new SyncWatermark(changedAt, 9L), SyncWatermark.decode(response.getWatermark()));
+    }
+
+    @Test
+    void getChangesSince_WatermarkOlderThanTombstonesResets() {
+        String old = new SyncWatermark(LocalDateTime.now().minusDays(120), 5L).encode();
+        when(foodEntryRepository.findChangesAfter(eq(1L), eq(LocalDateTime.of(1970, 1, 1, 0, 0)), eq(0L),
+                any(), any())).thenReturn(List.of());
+
+        FoodEntryChangesResponse response = service.getChangesSince(1L, old, 10);
+
+        assertTrue(response.isReset());
+        verifyNoInteractions(deletionRepository);
+    }
+
+    @Test
+    void getChangesSince_RejectsInvalidWatermarkAndLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.getChangesSince(1L, "not-a-watermark", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getChangesSince(1L, null, 0));
+    }
+
+    @Test
+    void onFoodEntryDeleted_RecordsTombstone() {
+        service.onFoodEntryDeleted(new FoodEntryDeletedEvent(42L, 1L));
+
+        ArgumentCaptor<FoodEntryDeletion> tombstone = ArgumentCaptor.forClass(FoodEntryDeletion.class);
+        verify(deletionRepository).save(tombstone.capture());
+        assertEquals(42L, tombstone.getValue().getEntryId());
+        assertEquals(1L, tombstone.getValue().getUserId());
+        assertNotNull(tombstone.getValue().getDeletedAt());
+    }
+}
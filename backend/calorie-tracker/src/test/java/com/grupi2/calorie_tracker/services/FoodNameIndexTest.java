@@ -0,0 +1,75 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodNameIndexTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private static List<String> names(List<Map.Entry<String, FoodNameIndex.Usage>> matches) {
+        return matches.stream().map(match -> match.getValue().displayName()).toList();
+    }
+
+    @Test
+    void suggest_MatchesPrefixRankedByCount() {
+        FoodNameIndex index = new FoodNameIndex(100, 1);
+        index.record(1L, "Pizza", 800, BigDecimal.TEN, MealType.DINNER, now);
+        index.record(1L, "Pita bread", 300, BigDecimal.ONE, MealType.LUNCH, now);
+        index.record(1L, "Pita bread", 300, BigDecimal.ONE, MealType.LUNCH, now);
+        index.record(1L, "Pasta", 600, BigDecimal.TEN, MealType.DINNER, now);
+
+        assertEquals(List.of("Pita bread", "Pizza"), names(index.suggest("  PI", 10, 1, Set.of())));
+        assertEquals(List.of("Pita bread"), names(index.suggest("pi", 1, 1, Set.of())));
+        assertEquals(List.of("Pizza"), names(index.suggest("pi", 10, 1, Set.of("pita bread"))));
+    }
+
+    @Test
+    void suggest_RequiresDistinctUsersNotRepeatedEntries() {
+        FoodNameIndex index = new FoodNameIndex(100, 3);
+        for (int i = 0; i < 10; i++) {
+            index.record(1L, "Grandma's stew", 500, BigDecimal.ONE, MealType.DINNER, now);
+        }
+        for (long user = 1; user <= 5; user++) {
+            index.record(user, "Granola", 200, BigDecimal.ONE, MealType.BREAKFAST, now);
+        }
+
+        assertEquals(List.of("Granola"), names(index.suggest("gra", 10, 3, Set.of())));
+        FoodNameIndex.Usage granola = index.suggest("granola", 1, 1, Set.of()).get(0).getValue();
+        assertEquals(5, granola.count());
+        assertEquals(3, granola.users().size());
+    }
+
+    @Test
+    void record_KeepsMostRecentSpellingAndValues() {
+        FoodNameIndex index = new FoodNameIndex(100, 1);
+        index.record(1L, "greek yogurt", 150, BigDecimal.ONE, MealType.BREAKFAST, now);
+        index.record(1L, "Greek  Yogurt", 180, BigDecimal.TEN, MealType.SNACK, now.minusDays(3));
+
+        FoodNameIndex.Usage usage = index.suggest("greek", 1, 1, Set.of()).get(0).getValue();
+
+        assertEquals(new FoodNameIndex.Usage("greek yogurt", 2, Set.of(1L), 150, BigDecimal.ONE, MealType.BREAKFAST, now), usage);
+    }
+
+    @Test
+    void record_DropsLeastUsedNamesPastCapacity() {
+        FoodNameIndex index = new FoodNameIndex(10, 1);
+        for (int i = 0; i < 5; i++) {
+            index.record(1L, "apple", 95, BigDecimal.ONE, MealType.SNACK, now);
+        }
+        for (int i = 0; i < 50; i++) {
+            index.record(1L, "food " + i, 100, BigDecimal.ONE, MealType.LUNCH, now);
+        }
+
+        assertTrue(index.size() <= 11, "size " + index.size());
+        assertEquals(List.of("apple"), names(index.suggest("app", 10, 1, Set.of())));
+    }
+}
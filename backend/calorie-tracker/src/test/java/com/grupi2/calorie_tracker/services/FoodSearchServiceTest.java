@@ -0,0 +1,156 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class FoodSearchServiceTest {
+
+    @Mock
+    private FoodEntryRepository foodEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FoodSearchService service;
+    // What the database holds; search results are looked up here by user and id
+    private final List<FoodEntryDTO> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(foodEntryRepository.findByUserIdAndIdIn(anyLong(), anyCollection())).thenAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            Collection<Long> ids = invocation.getArgument(1);
+            return rows.stream().filter(row -> row.getUserId().equals(userId) && ids.contains(row.getId())).toList();
+        });
+        service = new FoodSearchService(foodEntryRepository, transactionManager, new ByteBuffersDirectory(), 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.stop();
+    }
+
+    private FoodEntry entry(Long id, Long userId, String foodName, String description, MealType mealType,
+                            LocalDateTime dateTime) {
+        User user = new User();
+        user.setId(userId);
+        FoodEntry entry = new FoodEntry();
+        entry.setId(id);
+        entry.setUser(user);
+        entry.setFoodName(foodName);
+        entry.setDescription(description);
+        entry.setCalories(400);
+        entry.setPrice(BigDecimal.TEN);
+        entry.setMealType(mealType);
+        entry.setDateTime(dateTime);
+        rows.removeIf(row -> row.getId().equals(id));
+        rows.add(FoodEntryDTO.from(entry));
+        return entry;
+    }
+
+    private void index(FoodEntry... entries) throws Exception {
+        service.onFoodEntriesCreated(new FoodEntriesCreatedEvent(List.of(entries)));
+        service.awaitPendingUpdates();
+    }
+
+    private List<Long> search(Long userId, String text, LocalDate from, LocalDate to, MealType mealType) {
+        return service.search(userId, text, from, to, mealType, 20).stream().map(FoodEntryDTO::getId).toList();
+    }
+
+    @Test
+    void search_MatchesNameOrDescriptionOfOwnEntriesOnly() throws Exception {
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 2, 12, 0);
+        index(entry(1L, 1L, "Chicken salad", null, MealType.LUNCH, noon),
+                entry(2L, 1L, "Wrap", "grilled chicken, no sauce", MealType.LUNCH, noon),
+                entry(3L, 1L, "Pasta", null, MealType.DINNER, noon),
+                entry(4L, 2L, "Chicken soup", null, MealType.DINNER, noon));
+
+        // A name match outranks a description match
+        assertEquals(List.of(1L, 2L), search(1L, "chicken", null, null, null));
+        assertEquals(List.of(4L), search(2L, "Chicken", null, null, null));
+        assertEquals(List.of(2L), search(1L, "grilled chicken", null, null, null));
+    }
+
+    @Test
+    void search_LastWordMatchesAsPrefix() throws Exception {
+        index(entry(1L, 1L, "Blueberry muffin", null, MealType.BREAKFAST, LocalDateTime.of(2024, 3, 2, 8, 0)));
+
+        assertEquals(List.of(1L), search(1L, "blueberry muf", null, null, null));
+        assertEquals(List.of(), search(1L, "muf blueberry", null, null, null));
+    }
+
+    @Test
+    void search_FiltersByInclusiveDateRangeAndMealType() throws Exception {
+        index(entry(1L, 1L, "Oatmeal", null, MealType.BREAKFAST, LocalDateTime.of(2024, 3, 1, 0, 0)),
+                entry(2L, 1L, "Oatmeal", null, MealType.BREAKFAST, LocalDateTime.of(2024, 3, 10, 23, 59)),
+                entry(3L, 1L, "Oatmeal", null, MealType.SNACK, LocalDateTime.of(2024, 3, 5, 16, 0)),
+                entry(4L, 1L, "Oatmeal", null, MealType.BREAKFAST, LocalDateTime.of(2024, 3, 11, 7, 0)));
+
+        List<Long> march = search(1L, "oatmeal", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10), MealType.BREAKFAST);
+
+        assertEquals(2, march.size());
+        assertTrue(march.containsAll(List.of(1L, 2L)));
+        assertEquals(List.of(4L), search(1L, "oatmeal", LocalDate.of(2024, 3, 11), null, null));
+    }
+
+    @Test
+    void onFoodEntryUpdatedAndDeleted_KeepIndexCurrent() throws Exception {
+        FoodEntry entry = entry(1L, 1L, "Burger", null, MealType.DINNER, LocalDateTime.of(2024, 3, 2, 19, 0));
+        index(entry);
+
+        entry.setFoodName("Veggie burger");
+        service.onFoodEntryUpdated(new FoodEntryUpdatedEvent(entry));
+        service.awaitPendingUpdates();
+        assertEquals(List.of(1L), search(1L, "veggie", null, null, null));
+
+        service.onFoodEntryDeleted(new FoodEntryDeletedEvent(1L, 1L));
+        service.awaitPendingUpdates();
+        assertEquals(List.of(), search(1L, "burger", null, null, null));
+    }
+
+    @Test
+    void reindex_RebuildsFromDatabase() throws Exception {
+        index(entry(1L, 1L, "Stale entry", null, MealType.LUNCH, LocalDateTime.of(2024, 3, 2, 12, 0)));
+        rows.clear();
+        entry(2L, 1L, "Ramen", "spicy", MealType.DINNER, LocalDateTime.of(2024, 3, 3, 20, 0));
+        when(foodEntryRepository.streamAll()).thenReturn(rows.stream());
+
+        assertTrue(service.reindex());
+        service.awaitPendingUpdates();
+
+        assertEquals(List.of(2L), search(1L, "spicy", null, null, null));
+        assertEquals(List.of(), search(1L, "stale", null, null, null));
+    }
+
+    @Test
+    void search_RejectsBlankQueryAndBadLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.search(1L, " ,. ", null, null, null, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search(1L, "rice", null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.search(1L, "rice",
+                LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1), null, 20));
+    }
+}
@@ -0,0 +1,101 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.FoodSuggestionDTO;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FoodSuggestionServiceTest {
+
+    @Mock
+    private FoodEntryRepository foodEntryRepository;
+
+    private FoodSuggestionService foodSuggestionService;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        foodSuggestionService = new FoodSuggestionService(foodEntryRepository, 1000, 10);
+    }
+
+    private FoodEntryDTO row(Long userId, String foodName, int calories, LocalDateTime dateTime) {
+        return new FoodEntryDTO(null, userId, foodName, calories, BigDecimal.ONE, MealType.LUNCH, null, dateTime, null);
+    }
+
+    private static FoodEntry entry(Long userId, String foodName, int calories, LocalDateTime dateTime) {
+        User user = new User();
+        user.setId(userId);
+        FoodEntry entry = new FoodEntry();
+        entry.setUser(user);
+        entry.setFoodName(foodName);
+        entry.setCalories(calories);
+        entry.setPrice(BigDecimal.ONE);
+        entry.setMealType(MealType.SNACK);
+        entry.setDateTime(dateTime);
+        return entry;
+    }
+
+    @Test
+    void suggest_PersonalNamesFirstThenGlobalWithoutValues() {
+        when(foodEntryRepository.streamAll()).thenReturn(Stream.of(
+                row(2L, "Chicken curry", 700, now), row(3L, "Chicken curry", 650, now), row(4L, "Chicken curry", 600, now),
+                row(2L, "Chicken wrap", 500, now), row(3L, "Chicken wrap", 500, now), row(4L, "Chicken wrap", 500, now),
+                row(4L, "Chicken wrap", 500, now),
+                row(2L, "Chickpea salad", 400, now), row(2L, "Chickpea salad", 400, now), row(3L, "Chickpea salad", 400, now)));
+        when(foodEntryRepository.findRecentEntries(eq(1L), any()))
+                .thenReturn(List.of(row(1L, "chicken curry", 720, now)));
+        foodSuggestionService.seedGlobalIndex();
+
+        List<FoodSuggestionDTO> suggestions = foodSuggestionService.suggest(1L, "chick", 5);
+
+        // Chickpea salad has more entries than it has users, and two users are not enough
+        assertEquals(List.of(
+                new FoodSuggestionDTO("chicken curry", 1, 720, BigDecimal.ONE, MealType.LUNCH, true),
+                new FoodSuggestionDTO("Chicken wrap", 4, null, null, null, false)), suggestions);
+    }
+
+    @Test
+    void suggest_LoadsUserIndexOnce() {
+        when(foodEntryRepository.findRecentEntries(eq(1L), any())).thenReturn(List.of(row(1L, "Oatmeal", 300, now)));
+
+        foodSuggestionService.suggest(1L, "oat", 5);
+        foodSuggestionService.suggest(1L, "oa", 5);
+
+        verify(foodEntryRepository, times(1)).findRecentEntries(eq(1L), any());
+    }
+
+    @Test
+    void onFoodEntriesCreated_UpdatesCachedUserIndex() {
+        when(foodEntryRepository.findRecentEntries(eq(1L), any())).thenReturn(List.of(row(1L, "Oatmeal", 300, now.minusDays(1))));
+        foodSuggestionService.suggest(1L, "oat", 5);
+
+        foodSuggestionService.onFoodEntriesCreated(new FoodEntriesCreatedEvent(List.of(entry(1L, "Oatmeal", 350, now))));
+
+        assertEquals(List.of(new FoodSuggestionDTO("Oatmeal", 2, 350, BigDecimal.ONE, MealType.SNACK, true)),
+                foodSuggestionService.suggest(1L, "oat", 5));
+    }
+
+    @Test
+    void suggest_BlankPrefixOrInvalidLimit() {
+        assertTrue(foodSuggestionService.suggest(1L, "  ", 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> foodSuggestionService.suggest(1L, "a", 0));
+        verifyNoInteractions(foodEntryRepository);
+    }
+}
@@ -0,0 +1,67 @@
+package com.grupi2.calorie_tracker.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(long fromId, long toId) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = fromId; id < toId; id++) {
+            sketch.add(id);
+        }
+        return sketch;
+    }
+
+    @Test
+    void estimate_SmallSetsAreNearlyExact() {
+        assertEquals(0, new HyperLogLog().estimate());
+        assertEquals(100, sketchOf(1, 101).estimate(), 5);
+    }
+
+    @Test
+    void estimate_LargeSetWithinErrorBound() {
+        long estimate = sketchOf(1, 100_001).estimate();
+
+        // Roughly three standard errors at precision 12
+        assertEquals(100_000, estimate, 5_000);
+    }
+
+    @Test
+    void add_DuplicatesDoNotCount() {
+        HyperLogLog sketch = sketchOf(1, 1001);
+        long before = sketch.estimate();
+
+        for (long id = 1; id < 1001; id++) {
+            sketch.add(id);
+        }
+
+        assertEquals(before, sketch.estimate());
+    }
+
+    @Test
+    void merge_EstimatesUnion() {
+        HyperLogLog monday = sketchOf(1, 5001);
+        HyperLogLog tuesday = sketchOf(2501, 7501);
+
+        monday.merge(tuesday);
+
+        assertEquals(7500, monday.estimate(), 375);
+    }
+
+    @Test
+    void toBytes_RoundTripsAndCompressesSparseSketch() {
+        HyperLogLog sketch = sketchOf(1, 21);
+
+        byte[] bytes = sketch.toBytes();
+
+        assertTrue(bytes.length < 200, "sparse sketch stored in " + bytes.length + " bytes");
+        assertEquals(sketch.estimate(), HyperLogLog.fromBytes(bytes).estimate());
+    }
+
+    @Test
+    void fromBytes_RejectsCorruptData() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{1, 2, 3}));
+    }
+}
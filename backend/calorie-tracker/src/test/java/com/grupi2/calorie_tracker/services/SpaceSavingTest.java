@@ -0,0 +1,60 @@
+package com.grupi2.calorie_tracker.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    @Test
+    void add_CountsExactlyWhileUnderCapacity() {
+        SpaceSaving summary = new SpaceSaving(10);
+        summary.add("pizza");
+        summary.add("pizza");
+        summary.add("salad");
+
+        assertFalse(summary.isFull());
+        assertEquals(0, summary.missingItemBound());
+        assertTrue(summary.counters().contains(new SpaceSaving.Counter("pizza", 2, 0)));
+        assertTrue(summary.counters().contains(new SpaceSaving.Counter("salad", 1, 0)));
+    }
+
+    @Test
+    void add_KeepsHeavyHittersWhenFull() {
+        SpaceSaving summary = new SpaceSaving(20);
+        for (int i = 0; i < 1000; i++) {
+            summary.add("coffee");
+            summary.add("food-" + i);
+            if (i % 4 == 0) {
+                summary.add("banana");
+            }
+        }
+
+        List<SpaceSaving.Counter> top = summary.counters().stream()
+                .sorted(Comparator.comparingLong(SpaceSaving.Counter::count).reversed())
+                .toList();
+        assertEquals(20, top.size());
+        assertEquals("coffee", top.get(0).item());
+        assertEquals("banana", top.get(1).item());
+        // Reported counts never underestimate and overestimate by at most the error
+        assertTrue(top.get(0).count() >= 1000 && top.get(0).count() - top.get(0).error() <= 1000);
+        assertTrue(top.get(1).count() >= 250 && top.get(1).count() - top.get(1).error() <= 250);
+        assertTrue(summary.missingItemBound() > 0);
+    }
+
+    @Test
+    void of_RestoresCounters() {
+        SpaceSaving summary = SpaceSaving.of(2, List.of(
+                new SpaceSaving.Counter("pizza", 5, 1),
+                new SpaceSaving.Counter("salad", 3, 0)));
+
+        summary.add("pizza");
+
+        assertTrue(summary.isFull());
+        assertEquals(3, summary.missingItemBound());
+        assertTrue(summary.counters().contains(new SpaceSaving.Counter("pizza", 6, 1)));
+    }
+}
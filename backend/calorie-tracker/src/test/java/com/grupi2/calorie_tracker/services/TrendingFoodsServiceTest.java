@@ -0,0 +1,109 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupi2.calorie_tracker.dto.FoodEntryDTO;
+import com.grupi2.calorie_tracker.dto.TrendingFoodDTO;
+import com.grupi2.calorie_tracker.entities.DailyTrendingFoods;
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.MealType;
+import com.grupi2.calorie_tracker.repositories.DailyTrendingFoodsRepository;
+import com.grupi2.calorie_tracker.repositories.FoodEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TrendingFoodsServiceTest {
+
+    @Mock
+    private DailyTrendingFoodsRepository trendingFoodsRepository;
+
+    @Mock
+    private FoodEntryRepository foodEntryRepository;
+
+    private TrendingFoodsService trendingFoodsService;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        trendingFoodsService = new TrendingFoodsService(trendingFoodsRepository, foodEntryRepository, new ObjectMapper());
+    }
+
+    private static FoodEntry entry(String foodName, LocalDateTime dateTime) {
+        FoodEntry entry = new FoodEntry();
+        entry.setFoodName(foodName);
+        entry.setDateTime(dateTime);
+        return entry;
+    }
+
+    private void created(FoodEntry... entries) {
+        trendingFoodsService.onFoodEntriesCreated(new FoodEntriesCreatedEvent(List.of(entries)));
+    }
+
+    @Test
+    void getTrendingFoods_CountsNormalizedNamesOverWindow() {
+        created(entry("Pizza", now), entry("  pizza ", now.minusDays(3)), entry("Green   Salad", now),
+                entry("PIZZA", now.minusDays(8)));
+
+        assertEquals(List.of(new TrendingFoodDTO("pizza", 2, 0), new TrendingFoodDTO("green salad", 1, 0)),
+                trendingFoodsService.getTrendingFoods(7, 10));
+        assertEquals(List.of(new TrendingFoodDTO("pizza", 3, 0)), trendingFoodsService.getTrendingFoods(14, 1));
+    }
+
+    @Test
+    void onFoodEntriesCreated_IgnoresDaysPastRetention() {
+        created(entry("Pizza", now.minusDays(TrendingFoodsService.RETENTION_DAYS)));
+
+        assertTrue(trendingFoodsService.getTrendingFoods(TrendingFoodsService.RETENTION_DAYS, 10).isEmpty());
+    }
+
+    @Test
+    void getTrendingFoods_RejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> trendingFoodsService.getTrendingFoods(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> trendingFoodsService.getTrendingFoods(7, 500));
+    }
+
+    @Test
+    void snapshotDirtyDays_SavesChangedDaysAndLoadRestoresThem() {
+        created(entry("Pizza", now), entry("Pizza", now), entry("Salad", now));
+
+        trendingFoodsService.snapshotDirtyDays();
+        trendingFoodsService.snapshotDirtyDays();
+
+        ArgumentCaptor<DailyTrendingFoods> saved = ArgumentCaptor.forClass(DailyTrendingFoods.class);
+        verify(trendingFoodsRepository, times(1)).save(saved.capture());
+        assertEquals(now.toLocalDate(), saved.getValue().getDate());
+
+        TrendingFoodsService restarted = new TrendingFoodsService(trendingFoodsRepository, foodEntryRepository, new ObjectMapper());
+        when(trendingFoodsRepository.findByDateGreaterThanEqual(any())).thenReturn(List.of(saved.getValue()));
+        restarted.load();
+
+        assertEquals(List.of(new TrendingFoodDTO("pizza", 2, 0), new TrendingFoodDTO("salad", 1, 0)),
+                restarted.getTrendingFoods(1, 10));
+        verify(foodEntryRepository, never()).streamSince(any());
+    }
+
+    @Test
+    void load_NoSnapshots_CountsRecentEntriesOnce() {
+        LocalDate yesterday = now.toLocalDate().minusDays(1);
+        when(trendingFoodsRepository.findByDateGreaterThanEqual(any())).thenReturn(List.of());
+        when(foodEntryRepository.streamSince(any())).thenReturn(Stream.of(
+                new FoodEntryDTO(1L, 1L, "Oatmeal", 300, BigDecimal.ONE, MealType.BREAKFAST, null, yesterday.atTime(8, 0), null)));
+
+        trendingFoodsService.load();
+
+        assertEquals(List.of(new TrendingFoodDTO("oatmeal", 1, 0)), trendingFoodsService.getTrendingFoods(2, 10));
+    }
+}
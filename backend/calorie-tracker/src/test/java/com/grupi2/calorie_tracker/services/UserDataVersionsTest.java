@@ -0,0 +1,82 @@
+package com.grupi2.calorie_tracker.services;
+
+import com.grupi2.calorie_tracker.entities.FoodEntry;
+import com.grupi2.calorie_tracker.entities.User;
+import com.grupi2.calorie_tracker.repositories.UserDataVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserDataVersionsTest {
+
+    @Mock
+    private UserDataVersionRepository versionRepository;
+
+    private UserDataVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        versions = new UserDataVersions(versionRepository);
+    }
+
+    private FoodEntry entry(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        FoodEntry entry = new FoodEntry();
+        entry.setUser(user);
+        return entry;
+    }
+
+    @Test
+    void currentVersion_ReadsThePersistedVersion() {
+        when(versionRepository.findVersion(1L)).thenReturn(Optional.of(1234L));
+        when(versionRepository.findVersion(2L)).thenReturn(Optional.empty());
+
+        assertEquals(1234L, versions.currentVersion(1L));
+        assertEquals(0L, versions.currentVersion(2L));
+    }
+
+    @Test
+    void onFoodEntriesCreated_BumpsEachUserOnce() {
+        long before = System.currentTimeMillis();
+
+        versions.onFoodEntriesCreated(new FoodEntriesCreatedEvent(List.of(entry(1L), entry(1L), entry(2L))));
+
+        verify(versionRepository).bump(eq(1L), longThat(now -> now >= before));
+        verify(versionRepository).bump(eq(2L), anyLong());
+        verifyNoMoreInteractions(versionRepository);
+    }
+
+    @Test
+    void onFoodEntryDeleted_BumpsTheOwner() {
+        versions.onFoodEntryDeleted(new FoodEntryDeletedEvent(5L, 3L));
+
+        verify(versionRepository).bump(eq(3L), anyLong());
+    }
+
+    @Test
+    void onDailyTotalsRebuilt_GivesEveryUserANewVersion() {
+        versions.onDailyTotalsRebuilt(new DailyTotalsRebuiltEvent(0));
+
+        verify(versionRepository).bumpAll(anyLong());
+    }
+
+    @Test
+    void lastModified_OnlyOnceTheVersionsSecondIsOver() {
+        long now = System.currentTimeMillis();
+
+        assertEquals(-1, UserDataVersions.lastModified(now + 1000));
+        assertEquals(now - 2000, UserDataVersions.lastModified(now - 2000));
+        assertEquals(-1, UserDataVersions.lastModified(0));
+    }
+}
@@ -2,8 +2,10 @@ package com.grupi2.calorie_tracker.services;
 
 import com.grupi2.calorie_tracker.entities.User;
 import com.grupi2.calorie_tracker.repositories.UserRepository;
+import com.grupi2.calorie_tracker.security.TokenVersionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -21,6 +23,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
     @InjectMocks
     private UserService userService;
 
@@ -126,7 +131,10 @@ public class UserServiceTest {
 
         // Then
         assertEquals("encodedNewPassword", user.getPassword());
-        verify(userRepository).save(user);
+        InOrder order = inOrder(tokenVersionService, userRepository);
+        order.verify(tokenVersionService).revoke(user);
+        order.verify(userRepository).save(user);
+        order.verify(tokenVersionService).versionSaved(user);
     }
 
     @Test
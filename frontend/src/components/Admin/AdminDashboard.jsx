@@ -26,6 +26,8 @@ const AdminDashboard = () => {
   const [selectedUserId, setSelectedUserId] = useState(null);
   const [expandedEntry, setExpandedEntry] = useState(null);
   const [userJoinDate, setUserJoinDate] = useState(null);
+  const [entriesCursor, setEntriesCursor] = useState(null);
+  const [loadingMoreEntries, setLoadingMoreEntries] = useState(false);
 
 
   const toggleAccordion = (entryId) => {
@@ -102,7 +104,7 @@ const AdminDashboard = () => {
         setUserJoinDate(userData.createdAt); 
       }
   
-      const entriesResponse = await fetch(`http://localhost:8080/api/admin/users/${userId}/entries`, {
+      const entriesResponse = await fetch(`http://localhost:8080/api/admin/users/${userId}/entries?limit=200`, {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -110,28 +112,57 @@ const AdminDashboard = () => {
       
       if (entriesResponse.ok) {
         const data = await entriesResponse.json();
-        setSelectedUserEntries(data);
-  
-        const today = new Date();
-        const lastWeek = new Date(today);
-        lastWeek.setDate(today.getDate() - 7);
-  
-        const recentEntries = data.filter(entry => {
-          const entryDate = new Date(entry.dateTime);
-          return entryDate >= lastWeek && entryDate <= today;
-        });
-  
-        const totalCalories = recentEntries.reduce((sum, entry) => sum + entry.calories, 0);
-        
-        const averageCalories = recentEntries.length > 0 ? totalCalories / recentEntries.length : 0;
-  
-        setUserAverageCalories(averageCalories);
+        const entries = data.entries || [];
+        setSelectedUserEntries(entries);
+        setEntriesCursor(data.nextCursor || null);
+        setUserAverageCalories(lastWeekAverage(entries));
         setShowEntriesModal(true);
       }
     } catch (error) {
       console.error('Error fetching user entries:', error);
     }
   };
+
+  const loadMoreUserEntries = async () => {
+    if (!entriesCursor) return;
+    try {
+      setLoadingMoreEntries(true);
+      const token = getToken();
+      const response = await fetch(
+        `http://localhost:8080/api/admin/users/${selectedUserId}/entries?limit=200&cursor=${encodeURIComponent(entriesCursor)}`, {
+        headers: {
+          'Authorization': `Bearer ${token}`
+        }
+      });
+
+      if (response.ok) {
+        const data = await response.json();
+        const entries = [...selectedUserEntries, ...(data.entries || [])];
+        setSelectedUserEntries(entries);
+        setEntriesCursor(data.nextCursor || null);
+        setUserAverageCalories(lastWeekAverage(entries));
+      }
+    } catch (error) {
+      console.error('Error fetching user entries:', error);
+    } finally {
+      setLoadingMoreEntries(false);
+    }
+  };
+
+  const lastWeekAverage = (entries) => {
+    const today = new Date();
+    const lastWeek = new Date(today);
+    lastWeek.setDate(today.getDate() - 7);
+
+    const recentEntries = entries.filter(entry => {
+      const entryDate = new Date(entry.dateTime);
+      return entryDate >= lastWeek && entryDate <= today;
+    });
+
+    const totalCalories = recentEntries.reduce((sum, entry) => sum + entry.calories, 0);
+
+    return recentEntries.length > 0 ? totalCalories / recentEntries.length : 0;
+  };
   
 
   const handleUpdateEntry = async (entryId, updatedData) => {
@@ -457,6 +488,17 @@ const AdminDashboard = () => {
               ))}
             </tbody>
           </table>
+          {entriesCursor && (
+            <div className="mt-3 text-center">
+              <button
+                className="btn btn-outline-secondary"
+                onClick={loadMoreUserEntries}
+                disabled={loadingMoreEntries}
+              >
+                {loadingMoreEntries ? 'Loading...' : 'Load more'}
+              </button>
+            </div>
+          )}
         </div>
       </div>
     </div>
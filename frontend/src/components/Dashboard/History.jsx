@@ -28,6 +28,8 @@ const History = () => {
   const [endDate, setEndDate] = useState('');
   const [isDateRangeActive, setIsDateRangeActive] = useState(false);
   const [dateRangeError, setDateRangeError] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   const today = new Date().toISOString().split('T')[0];
 
@@ -123,6 +125,7 @@ const History = () => {
         setEntries(data.entries || []);
         setFilteredEntries(data.entries || []);
         setTotalCalories(data.totalCalories || 0);
+        setNextCursor(data.nextCursor || null);
       }
     } catch (error) {
       console.error('Error fetching history:', error);
@@ -154,6 +157,7 @@ const History = () => {
         setEntries(data.entries || []);
         setFilteredEntries(data.entries || []);
         setTotalCalories(data.totalCalories || 0);
+        setNextCursor(data.nextCursor || null);
       }
     } catch (error) {
       console.error('Error fetching history:', error);
@@ -162,6 +166,29 @@ const History = () => {
     }
   };
 
+  const loadMoreEntries = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      let url = `http://localhost:8080/api/food-entries/history?range=all&cursor=${encodeURIComponent(nextCursor)}`;
+
+      if (isDateRangeActive && startDate && endDate) {
+        url += `&startDate=${startDate}&endDate=${endDate}`;
+      }
+
+      const data = await fetchWithAuth(url);
+
+      if (data) {
+        setEntries(previous => [...previous, ...(data.entries || [])]);
+        setNextCursor(data.nextCursor || null);
+      }
+    } catch (error) {
+      console.error('Error fetching history:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const formatDate = (dateString, format = 'full') => {
     const date = new Date(dateString);
     
@@ -388,6 +415,18 @@ const History = () => {
                   );
                 })}
 
+                {nextCursor && !searchTerm && (
+                  <div className="mt-3 text-center">
+                    <button
+                      className="btn btn-outline-secondary"
+                      onClick={loadMoreEntries}
+                      disabled={loadingMore}
+                    >
+                      {loadingMore ? 'Loading...' : 'Load more'}
+                    </button>
+                  </div>
+                )}
+
                 {dateRange !== 'day' && (
                   <div className="mt-3 mb-4 text-center">
                     <strong>Total Calories: 
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { Button, Modal, Form, Alert } from 'react-bootstrap';
-import { getToken } from '../../utils/authUtils';
+import { getToken, setToken } from '../../utils/authUtils';
 
 const ProfilePopup = ({ show, onHide }) => {
   const navigate = useNavigate();
@@ -90,7 +90,11 @@ const ProfilePopup = ({ show, onHide }) => {
         throw new Error(errorData.message || 'Failed to update profile');
       }
   
-      const updatedUser = await response.json();
+      // A new email revokes the old token, so the response then carries a fresh one
+      const { user: updatedUser, token: refreshedToken } = await response.json();
+      if (refreshedToken) {
+        setToken(refreshedToken);
+      }
       setUser(updatedUser);
       setIsEditing(false);
       setError('');
@@ -150,6 +154,11 @@ const ProfilePopup = ({ show, onHide }) => {
         throw new Error(errorData.message || 'Failed to reset password');
       }
 
+      const { token: refreshedToken } = await response.json();
+      if (refreshedToken) {
+        setToken(refreshedToken);
+      }
+
       setPasswordData({
         currentPassword: '',
         newPassword: '',